@@ -0,0 +1,36 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so the allocation rate is reported next to each time
+ *
+ * @author Giovanni Coppola
+ */
+public class Benchmarks {
+    /**
+     * Run the benchmarks
+     * @param args the regexes of the benchmarks to run, every benchmark if there are none
+     */
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder builder = new OptionsBuilder();
+        if (args.length == 0) {
+            builder.include("benchmarks\\..*");
+        }
+        for (String include : args) {
+            builder.include(include);
+        }
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .jvmArgsAppend("-Dpuzzles.data=" + System.getProperty("puzzles.data", "../data"))
+                .build();
+        new Runner(options).run();
+    }
+}
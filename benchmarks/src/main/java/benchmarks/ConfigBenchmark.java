@@ -0,0 +1,91 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import puzzles.clock.Clock;
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import puzzles.tipover.model.TipOverConfig;
+import puzzles.water.Water;
+import solver.Configuration;
+import solver.Solver;
+
+import java.io.FileNotFoundException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Measures the operations the solvers call on every configuration: getNeighbors, hashCode, equals against an equal
+ *      configuration, and the copy constructor. Each puzzle is measured at the configuration halfway along its
+ *      solution, which has moved pieces like most of the configurations a search goes through
+ *
+ * @author Giovanni Coppola
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigBenchmark {
+    @Param({"tipover", "lunarlanding", "water", "clock"})
+    public String kind;
+
+    private Configuration config;
+    private Configuration twin;
+    private UnaryOperator<Configuration> copier;
+
+    @Setup
+    public void load() throws FileNotFoundException {
+        Configuration start;
+        switch (kind) {
+            case "tipover":
+                start = Puzzles.load("tipover/tipover-7.txt");
+                copier = other -> new TipOverConfig((TipOverConfig) other);
+                break;
+            case "lunarlanding":
+                start = Puzzles.load("lunarlanding/lula-8.txt");
+                copier = other -> new LunarLandingConfig((LunarLandingConfig) other);
+                break;
+            case "water":
+                start = new Water(6, List.of(3, 5, 7, 11));
+                copier = other -> new Water((Water) other);
+                break;
+            default:
+                // The clock has no copy constructor, a new clock with the same times is the same work
+                start = new Clock(12, 3, 9);
+                copier = other -> new Clock(12, 3, 9);
+                break;
+        }
+        config = kind.equals("clock") ? start : halfway(start);
+        twin = copier.apply(config);
+    }
+
+    @Benchmark
+    public Collection<Configuration> getNeighbors() {
+        return config.getNeighbors();
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return config.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsTwin() {
+        return config.equals(twin);
+    }
+
+    @Benchmark
+    public Configuration copy() {
+        return copier.apply(config);
+    }
+
+    /**
+     * Get the configuration halfway along the solution of a puzzle
+     *
+     * @param start - the start of the puzzle
+     * @return - the configuration in the middle of the path, or the start if there is no solution
+     */
+    private static Configuration halfway(Configuration start) {
+        List<Configuration> path = new Solver(start).solver();
+        return path.isEmpty() ? start : path.get(path.size() / 2);
+    }
+}
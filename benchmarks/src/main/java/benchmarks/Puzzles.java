@@ -0,0 +1,34 @@
+package benchmarks;
+
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import puzzles.tipover.TipOver;
+import solver.Configuration;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Loads the puzzles in the data directory for the benchmarks. The directory is the puzzles.data system property, or
+ *      ../data when the benchmarks are run from the benchmarks directory
+ *
+ * @author Giovanni Coppola
+ */
+final class Puzzles {
+    private Puzzles() {
+    }
+
+    /**
+     * Load the start of a puzzle in the data directory
+     *
+     * @param name - the path of the puzzle file in the data directory, such as tipover/tipover-7.txt
+     * @return - the start configuration
+     */
+    static Configuration load(String name) throws FileNotFoundException {
+        Path file = Paths.get(System.getProperty("puzzles.data", "../data")).resolve(name);
+        if (name.startsWith("tipover")) {
+            return TipOver.loadConfig(file.toString());
+        }
+        return new LunarLandingConfig(file.toString());
+    }
+}
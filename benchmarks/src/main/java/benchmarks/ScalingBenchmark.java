@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import puzzles.lunarlanding.model.LunarLandingGenerator;
+import puzzles.tipover.model.TipOverGenerator;
+import solver.Configuration;
+import solver.Solver;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole BFS with Solver.solver on generated puzzles of growing size. The puzzles are made with a fixed
+ *      seed so every run solves the same boards. Towers and crates grow with the area of the board, robots with its
+ *      side, as more robots give the explorer so many moves that the bigger boards no longer finish in seconds
+ *
+ * @author Giovanni Coppola
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScalingBenchmark {
+    private static final long SEED = 1;
+
+    @Param({"tipover", "lunarlanding"})
+    public String kind;
+
+    @Param({"20", "40", "80"})
+    public int size;
+
+    @Param({"10", "20"})
+    public int depth;
+
+    private Configuration start;
+
+    @Setup
+    public void generate() {
+        int area = size * size;
+        if (kind.equals("tipover")) {
+            start = new TipOverGenerator(size, size, area / 10, area / 12, depth, SEED).generate();
+        } else {
+            start = new LunarLandingGenerator(size, size, size / 5, depth, SEED).generate();
+        }
+    }
+
+    @Benchmark
+    public List<Configuration> solve() {
+        return new Solver(start).solver();
+    }
+}
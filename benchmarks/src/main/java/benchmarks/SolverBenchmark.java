@@ -0,0 +1,40 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import solver.Configuration;
+import solver.Solver;
+
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole BFS with Solver.solver on every puzzle in the data directory
+ *
+ * @author Giovanni Coppola
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SolverBenchmark {
+    @Param({"tipover/tipover-0.txt", "tipover/tipover-1.txt", "tipover/tipover-2.txt", "tipover/tipover-3.txt",
+            "tipover/tipover-4.txt", "tipover/tipover-5.txt", "tipover/tipover-6.txt", "tipover/tipover-7.txt",
+            "tipover/tipover-8.txt", "tipover/tipover-9.txt", "tipover/tipover-a.txt",
+            "lunarlanding/lula-0.txt", "lunarlanding/lula-1.txt", "lunarlanding/lula-2.txt",
+            "lunarlanding/lula-3.txt", "lunarlanding/lula-4.txt", "lunarlanding/lula-5.txt",
+            "lunarlanding/lula-6.txt", "lunarlanding/lula-7.txt", "lunarlanding/lula-8.txt",
+            "lunarlanding/lula-9.txt", "lunarlanding/lula-a.txt"})
+    public String puzzle;
+
+    private Configuration start;
+
+    @Setup
+    public void load() throws FileNotFoundException {
+        start = Puzzles.load(puzzle);
+    }
+
+    @Benchmark
+    public List<Configuration> solve() {
+        return new Solver(start).solver();
+    }
+}
@@ -0,0 +1,355 @@
+package puzzles.batch;
+
+import puzzles.clock.Clock;
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import puzzles.tipover.TipOver;
+import puzzles.water.Water;
+import solver.Configuration;
+import solver.ParallelSolver;
+import solver.SolutionCache;
+import solver.SolveLimits;
+import solver.SolveResult;
+import solver.Solver;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Solves every puzzle in a set of files and directories in one JVM, using a fixed pool of worker threads.
+ * The kind of puzzle is taken from the name of the file or the directory it is in: tipover, lunarlanding (or lula),
+ *      water and clock. Water and clock files hold the same numbers as the command line of their mains. Files
+ *      ending in -in.txt are commands for the PTUIs and are skipped.
+ * The results are printed in the order of the files as soon as each one and every one before it are done. With -out,
+ *      each solution is written to its own file in the format of the output directory instead, and only a summary
+ *      line with the time and the number of configurations is printed for each puzzle.
+ * One of these options picks a different search than the BFS of the Solver. They find paths of the same length, but
+ *      the counts are different from the ones in the output directory, so the solutions each one finds are cached
+ *      apart:
+ *      -parallel expands the levels of each BFS on the common fork join pool with the ParallelSolver, for machines
+ *          with many more cores than puzzles. It finds the same paths, and checks each level for a solution before
+ *          expanding any of it.
+ *      -early checks each configuration for a solution as soon as it is found (see Solver.setEarlyGoalTest), which
+ *          finds the same paths sooner.
+ *      -bidirectional searches from the goal at the same time as from the start (see Solver.bidirectionalSolver)
+ *          for puzzles that have a single goal and can undo their moves, which is the clock. The other puzzles are
+ *          solved with the regular BFS
+ *
+ * @author Giovanni Coppola
+ */
+public class BatchSolver {
+    /**
+     * The searches the batch solver can use
+     */
+    public enum Search {
+        BFS(""),
+        PARALLEL("-parallel"),
+        EARLY_GOAL_TEST("-early"),
+        BIDIRECTIONAL("-bidirectional");
+
+        private final String option;
+
+        Search(String option) {
+            this.option = option;
+        }
+    }
+
+    /**
+     * The kinds of puzzles the batch solver can read
+     */
+    private enum Kind {
+        TIPOVER("tipover", true),
+        LUNARLANDING("lunarlanding", true),
+        WATER("water", false),
+        CLOCK("clock", false);
+
+        private final String name;
+        private final boolean grid;
+
+        Kind(String name, boolean grid) {
+            this.name = name;
+            this.grid = grid;
+        }
+    }
+
+    /**
+     * Private members for the batch solver
+     */
+    private final int threads;
+    private final Path outputDirectory;
+    private final Search search;
+    private final PrintStream out;
+
+    /**
+     * Create a new instance of the batch solver
+     *
+     * @param threads - the number of puzzles to solve at the same time
+     * @param outputDirectory - the directory to write each solution to, or null to print the solutions
+     * @param search - the search to solve the puzzles with, other than the water puzzles which have their own
+     * @param out - where to print the results
+     */
+    public BatchSolver(int threads, Path outputDirectory, Search search, PrintStream out) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        this.threads = threads;
+        this.outputDirectory = outputDirectory;
+        this.search = search;
+        this.out = out;
+    }
+
+    /**
+     * Run the batch solver
+     * @param args [-threads N] [-out directory] [-parallel | -early | -bidirectional] file, directory or glob ...
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path outputDirectory = null;
+        List<Search> searches = new ArrayList<>();
+        List<String> inputs = new ArrayList<>();
+        for (int index = 0; index < args.length; index++) {
+            if (args[index].equals("-threads") && index + 1 < args.length) {
+                threads = Integer.parseInt(args[++index]);
+            } else if (args[index].equals("-out") && index + 1 < args.length) {
+                outputDirectory = Paths.get(args[++index]);
+            } else {
+                Search picked = null;
+                for (Search search : Search.values()) {
+                    if (search != Search.BFS && args[index].equals(search.option)) {
+                        picked = search;
+                    }
+                }
+                if (picked != null) {
+                    searches.add(picked);
+                } else {
+                    inputs.add(args[index]);
+                }
+            }
+        }
+        if (inputs.isEmpty() || searches.size() > 1) {
+            System.out.println("Usage: java BatchSolver [-threads N] [-out directory] " +
+                    "[-parallel | -early | -bidirectional] file|directory|glob ...");
+        } else {
+            new BatchSolver(threads, outputDirectory, searches.isEmpty() ? Search.BFS : searches.get(0), System.out)
+                    .run(findPuzzles(inputs));
+        }
+    }
+
+    /**
+     * Solve every puzzle and print the results in order
+     *
+     * @param puzzles - the puzzle files
+     */
+    public void run(List<Path> puzzles) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (Path puzzle : puzzles) {
+                results.add(executor.submit(() -> solve(puzzle)));
+            }
+            long start = System.nanoTime();
+            for (int index = 0; index < results.size(); index++) {
+                try {
+                    out.print(results.get(index).get());
+                } catch (ExecutionException e) {
+                    out.println(puzzles.get(index) + ": error: " + e.getCause());
+                }
+                out.flush();
+            }
+            out.println("Solved " + puzzles.size() + " puzzles in " + (System.nanoTime() - start) / 1_000_000 +
+                    " ms with " + threads + " threads");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Solve one puzzle file
+     *
+     * @param puzzle - the puzzle file
+     * @return - the text to print for the puzzle
+     */
+    private String solve(Path puzzle) throws IOException {
+        Kind kind = kindOf(puzzle);
+        if (kind == null) {
+            return puzzle + ": error: unknown kind of puzzle\n";
+        }
+        long start = System.nanoTime();
+        Configuration startNode = load(kind, puzzle);
+        String cacheKind = kind == Kind.WATER ? kind.name : kind.name + search.option;
+        SolveResult result = SolutionCache.getDefault().getOrSolve(
+                SolutionCache.keyForFile(cacheKind, puzzle.toString()), startNode,
+                node -> kind == Kind.WATER ? Water.solve((Water) node) : search(node));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        String solution = format(kind, result);
+        String counts = result.getStatus() == SolveResult.Status.REJECTED ? ", rejected before searching" :
+                ", total configs " + result.getTotalConfigs() + ", unique configs " + result.getUniqueConfigs();
+        String summary = puzzle + ": " + (result.isSolved() ? "solved in " + result.getDepth() + " moves" :
+                "no solution") + counts + ", " + millis + " ms\n";
+        if (outputDirectory == null) {
+            return "== " + summary + solution;
+        }
+        Path file = outputDirectory.resolve(kind.name).resolve(puzzle.getFileName().toString());
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, solution);
+        return summary;
+    }
+
+    /**
+     * Search for the solution of a puzzle with the solver that was picked
+     *
+     * @param startNode - the start of the puzzle
+     * @return - the result of the search
+     */
+    private SolveResult search(Configuration startNode) {
+        if (search == Search.PARALLEL) {
+            return new ParallelSolver(startNode).solve();
+        }
+        Solver solver = new Solver(startNode);
+        if (search == Search.BIDIRECTIONAL) {
+            List<Configuration> path = solver.bidirectionalSolver();
+            return new SolveResult(path.isEmpty() ? SolveResult.Status.UNSOLVABLE : SolveResult.Status.SOLVED, path,
+                    solver.getDepth(), solver.getTotalConfigs(), solver.getUniqueConfigs());
+        }
+        solver.setEarlyGoalTest(search == Search.EARLY_GOAL_TEST);
+        return solver.solve(SolveLimits.NONE);
+    }
+
+    /**
+     * Read the start of a puzzle from a file
+     *
+     * @param kind - the kind of puzzle
+     * @param puzzle - the puzzle file
+     * @return - the start configuration
+     */
+    private static Configuration load(Kind kind, Path puzzle) throws IOException {
+        switch (kind) {
+            case TIPOVER:
+                return TipOver.loadConfig(puzzle.toString());
+            case LUNARLANDING:
+                return new LunarLandingConfig(puzzle.toString());
+            default:
+                String[] numbers = Files.readString(puzzle).trim().split("\\s+");
+                if (kind == Kind.CLOCK) {
+                    if (numbers.length != 3) {
+                        throw new IOException("A clock needs hours, start and end: " + puzzle);
+                    }
+                    return new Clock(Integer.parseInt(numbers[0]), Integer.parseInt(numbers[1]),
+                            Integer.parseInt(numbers[2]));
+                }
+                if (numbers.length < 2) {
+                    throw new IOException("Water needs an amount and at least one bucket: " + puzzle);
+                }
+                List<Integer> buckets = new LinkedList<>();
+                for (int index = 1; index < numbers.length; index++) {
+                    buckets.add(Integer.parseInt(numbers[index]));
+                }
+                return new Water(Integer.parseInt(numbers[0]), buckets);
+        }
+    }
+
+    /**
+     * Write a result in the format of the files in the output directory
+     *
+     * @param kind - the kind of puzzle
+     * @param result - the result of solving the puzzle
+     * @return - the counts followed by each step, or no solution. A puzzle rejected before searching has no counts
+     */
+    private static String format(Kind kind, SolveResult result) {
+        StringBuilder text = new StringBuilder();
+        if (result.getStatus() == SolveResult.Status.REJECTED) {
+            text.append("Rejected before searching\n");
+        } else {
+            text.append("Total configs: ").append(result.getTotalConfigs()).append('\n');
+            text.append("Unique configs: ").append(result.getUniqueConfigs()).append('\n');
+        }
+        List<Configuration> path = result.getPath();
+        if (path.isEmpty()) {
+            text.append("No solution\n");
+        }
+        for (int index = 0; index < path.size(); index++) {
+            text.append("Step ").append(index).append(kind.grid ? ": \n" : ": ").append(path.get(index)).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Work out the kind of puzzle from the name of the file or the directory it is in
+     *
+     * @param puzzle - the puzzle file
+     * @return - the kind, or null if the name does not match any
+     */
+    private static Kind kindOf(Path puzzle) {
+        List<String> names = new ArrayList<>();
+        names.add(puzzle.getFileName().toString().toLowerCase());
+        if (puzzle.toAbsolutePath().getParent() != null && puzzle.toAbsolutePath().getParent().getFileName() != null) {
+            names.add(puzzle.toAbsolutePath().getParent().getFileName().toString().toLowerCase());
+        }
+        for (String name : names) {
+            for (Kind kind : Kind.values()) {
+                if (name.startsWith(kind.name)) {
+                    return kind;
+                }
+            }
+            if (name.startsWith("lula")) {
+                return Kind.LUNARLANDING;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find every puzzle file named by the inputs. A directory gives the files directly in it, and an input with
+     *      glob characters is matched against every file under the directory before the first glob character
+     *
+     * @param inputs - the files, directories and globs
+     * @return - the puzzle files, sorted within each input
+     */
+    public static List<Path> findPuzzles(List<String> inputs) throws IOException {
+        List<Path> puzzles = new ArrayList<>();
+        for (String input : inputs) {
+            List<Path> found = new ArrayList<>();
+            int glob = indexOfGlob(input);
+            if (glob >= 0) {
+                int slash = input.lastIndexOf('/', glob);
+                Path base = Paths.get(slash < 0 ? "." : input.substring(0, slash + 1));
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + input);
+                try (Stream<Path> files = Files.walk(base)) {
+                    files.filter(Files::isRegularFile)
+                            .map(file -> slash < 0 ? base.relativize(file) : file)
+                            .filter(matcher::matches)
+                            .forEach(found::add);
+                }
+            } else if (Files.isDirectory(Paths.get(input))) {
+                try (Stream<Path> files = Files.list(Paths.get(input))) {
+                    files.filter(Files::isRegularFile).forEach(found::add);
+                }
+            } else {
+                found.add(Paths.get(input));
+            }
+            found.removeIf(file -> file.getFileName().toString().endsWith("-in.txt"));
+            Collections.sort(found);
+            puzzles.addAll(found);
+        }
+        return puzzles;
+    }
+
+    /**
+     * Find the first glob character in an input
+     *
+     * @param input - the input to look in
+     * @return - the index of the character, or -1 if there is none
+     */
+    private static int indexOfGlob(String input) {
+        for (int index = 0; index < input.length(); index++) {
+            if ("*?[{".indexOf(input.charAt(index)) >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,18 +1,21 @@
 package puzzles.clock;
 
 import solver.Configuration;
+import solver.EncodableConfiguration;
 import solver.Solver;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Main class for the "clock" puzzle.
  *
  * @author Giovanni Coppola
  */
-public class Clock implements Configuration {
+public class Clock implements EncodableConfiguration {
     /**
      * Private member variables for the clocks
      */
@@ -84,19 +87,90 @@ public class Clock implements Configuration {
     @Override
     public Collection<Configuration> getNeighbors() {
         List<Configuration> neighbors = new LinkedList<>();
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * Hand the two clocks one hour back and one hour forward to the visitor, in the same order as getNeighbors
+     *
+     * @param visitor - the consumer that is given each neighbor
+     */
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> visitor) {
         if (this.startTime > 1 && this.startTime < this.hoursOnClock) {
-            neighbors.add(new Clock(this.hoursOnClock, this.startTime - 1, this.finalTime));
-            neighbors.add(new Clock(this.hoursOnClock, this.startTime + 1, this.finalTime));
+            visitor.accept(new Clock(this.hoursOnClock, this.startTime - 1, this.finalTime));
+            visitor.accept(new Clock(this.hoursOnClock, this.startTime + 1, this.finalTime));
         } else {
             if (this.startTime == 1) {
-                neighbors.add(new Clock(this.hoursOnClock, this.hoursOnClock, this.finalTime));
-                neighbors.add(new Clock(this.hoursOnClock, this.startTime + 1, this.finalTime));
+                visitor.accept(new Clock(this.hoursOnClock, this.hoursOnClock, this.finalTime));
+                visitor.accept(new Clock(this.hoursOnClock, this.startTime + 1, this.finalTime));
             } else {
-                neighbors.add(new Clock(this.hoursOnClock, this.startTime - 1, this.finalTime));
-                neighbors.add(new Clock(this.hoursOnClock, 1, this.finalTime));
+                visitor.accept(new Clock(this.hoursOnClock, this.startTime - 1, this.finalTime));
+                visitor.accept(new Clock(this.hoursOnClock, 1, this.finalTime));
             }
         }
-        return neighbors;
+    }
+
+    /**
+     * Get the goal clock, which is the clock set to the final time
+     *
+     * @return - the goal configuration
+     */
+    @Override
+    public Configuration getGoal() {
+        return new Clock(this.hoursOnClock, this.finalTime, this.finalTime);
+    }
+
+    /**
+     * Turning the clock is reversible, so the clocks that reach a clock are easy to find
+     *
+     * @return - true
+     */
+    @Override
+    public boolean hasReverseNeighbors() {
+        return true;
+    }
+
+    /**
+     * Get the clocks that can reach this clock in one move. Turning the clock is reversible, so they are the same as
+     *      the neighbors
+     *
+     * @return - the collection of reverse neighbors
+     */
+    @Override
+    public Collection<Configuration> getReverseNeighbors() {
+        return getNeighbors();
+    }
+
+    /**
+     * Encode the clock, only the current time changes while solving so it is the only thing stored
+     *
+     * @return - the current time as bytes
+     */
+    @Override
+    public byte[] encode() {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(this.startTime).array();
+    }
+
+    @Override
+    public Configuration decode(byte[] key) {
+        return new Clock(this.hoursOnClock, ByteBuffer.wrap(key).getInt(), this.finalTime);
+    }
+
+    @Override
+    public boolean fitsInLong() {
+        return true;
+    }
+
+    @Override
+    public long encodeLong() {
+        return this.startTime;
+    }
+
+    @Override
+    public Configuration decodeLong(long key) {
+        return new Clock(this.hoursOnClock, (int) key, this.finalTime);
     }
 
     @Override
@@ -106,7 +180,7 @@ public class Clock implements Configuration {
 
     @Override
     public int hashCode() {
-        return this.hoursOnClock + this.startTime + this.finalTime;
+        return (this.hoursOnClock * 31 + this.startTime) * 31 + this.finalTime;
     }
 
     @Override
@@ -114,7 +188,9 @@ public class Clock implements Configuration {
         boolean result = false;
         if (other instanceof Clock) {
             Clock newClock = (Clock) other;
-            result = this.finalTime == newClock.finalTime;
+            result = this.hoursOnClock == newClock.hoursOnClock &&
+                    this.startTime == newClock.startTime &&
+                    this.finalTime == newClock.finalTime;
         }
         return result;
     }
@@ -0,0 +1,188 @@
+package puzzles.clock;
+
+import solver.Configuration;
+import solver.Solver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Answers clock puzzles without searching. The clock is a cycle, so the shortest way from the start to the end is
+ *      either straight back or straight forward, and the number of steps each way can be worked out directly.
+ * When both ways take the same number of steps the answer goes back, which is the same path the BFS solver finds since
+ *      it always tries the clock one hour back first.
+ * Files of queries (one "hours start end" per line) can be answered in parallel, with the answers written in the same
+ *      order as the queries
+ *
+ * @author Giovanni Coppola
+ */
+public class ClockEngine {
+    /**
+     * The way to turn the clock
+     */
+    public enum Direction {
+        NONE,
+        BACKWARD,
+        FORWARD
+    }
+
+    /**
+     * Run the engine on a file of queries, or check it against the BFS solver.
+     * @param args [0]: the file of queries, [1]: the file to write the answers to;
+     *             or [0]: -verify, [1]: the largest number of hours to check
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: java ClockEngine queries answers");
+            System.out.println("       java ClockEngine -verify hours");
+        } else if (args[0].equals("-verify")) {
+            int mismatches = verify(Integer.parseInt(args[1]));
+            System.out.println(mismatches == 0 ? "Every answer matches the BFS solver" :
+                    mismatches + " answers do not match the BFS solver");
+        } else {
+            answerFile(Paths.get(args[0]), Paths.get(args[1]));
+        }
+    }
+
+    /**
+     * Get the number of steps on the shortest path from the start to the end
+     *
+     * @param hours - the number of hours on the clock
+     * @param start - the starting time, from 1 to hours
+     * @param end - the goal time, from 1 to hours
+     * @return - the number of steps
+     */
+    public static int distance(int hours, int start, int end) {
+        check(hours, start, end);
+        int backward = Math.floorMod(start - end, hours);
+        return Math.min(backward, hours - backward);
+    }
+
+    /**
+     * Get the way to turn the clock on the shortest path from the start to the end, going back when both ways are
+     *      the same length
+     *
+     * @param hours - the number of hours on the clock
+     * @param start - the starting time, from 1 to hours
+     * @param end - the goal time, from 1 to hours
+     * @return - the direction, or NONE if the clock is already at the end
+     */
+    public static Direction direction(int hours, int start, int end) {
+        check(hours, start, end);
+        int backward = Math.floorMod(start - end, hours);
+        if (backward == 0) {
+            return Direction.NONE;
+        }
+        return backward <= hours - backward ? Direction.BACKWARD : Direction.FORWARD;
+    }
+
+    /**
+     * Build the shortest path from the start to the end, which is the same path the BFS solver returns
+     *
+     * @param hours - the number of hours on the clock
+     * @param start - the starting time, from 1 to hours
+     * @param end - the goal time, from 1 to hours
+     * @return - the list of clocks from the start to the end
+     */
+    public static List<Configuration> path(int hours, int start, int end) {
+        int steps = distance(hours, start, end);
+        int step = direction(hours, start, end) == Direction.FORWARD ? 1 : -1;
+        List<Configuration> path = new ArrayList<>(steps + 1);
+        int time = start;
+        path.add(new Clock(hours, time, end));
+        for (int index = 0; index < steps; index++) {
+            time = Math.floorMod(time - 1 + step, hours) + 1;
+            path.add(new Clock(hours, time, end));
+        }
+        return path;
+    }
+
+    /**
+     * Answer one query
+     *
+     * @param query - a line with the hours, the start and the end separated by spaces
+     * @return - the query followed by the direction and the number of steps, or the query followed by the reason it
+     *      could not be answered
+     */
+    public static String answer(String query) {
+        String[] parts = query.trim().split("\\s+");
+        try {
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected hours start end");
+            }
+            int hours = Integer.parseInt(parts[0]);
+            int start = Integer.parseInt(parts[1]);
+            int end = Integer.parseInt(parts[2]);
+            return hours + " " + start + " " + end + " " + direction(hours, start, end) + " " +
+                    distance(hours, start, end);
+        } catch (IllegalArgumentException e) {
+            return query.trim() + " INVALID " + e.getMessage();
+        }
+    }
+
+    /**
+     * Answer every query in a file in parallel, writing the answers to another file in the same order. Blank lines
+     *      are skipped. The queries are streamed, so the file does not have to fit in memory
+     *
+     * @param queries - the file of queries
+     * @param answers - the file to write the answers to
+     */
+    public static void answerFile(Path queries, Path answers) throws IOException {
+        try (Stream<String> lines = Files.lines(queries); BufferedWriter writer = Files.newBufferedWriter(answers)) {
+            lines.parallel()
+                    .filter(line -> !line.isBlank())
+                    .map(ClockEngine::answer)
+                    .forEachOrdered(line -> {
+                        try {
+                            writer.write(line);
+                            writer.newLine();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Check the engine against the BFS solver for every start and end on every clock up to a number of hours
+     *
+     * @param maxHours - the largest number of hours to check
+     * @return - the number of queries where the path from the engine is not the path from the solver
+     */
+    public static int verify(int maxHours) {
+        int mismatches = 0;
+        for (int hours = 1; hours <= maxHours; hours++) {
+            for (int start = 1; start <= hours; start++) {
+                for (int end = 1; end <= hours; end++) {
+                    List<Configuration> expected = new Solver(new Clock(hours, start, end)).solver();
+                    if (!expected.equals(path(hours, start, end))) {
+                        mismatches++;
+                    }
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Make sure a query is on the clock
+     *
+     * @param hours - the number of hours on the clock
+     * @param start - the starting time
+     * @param end - the goal time
+     */
+    private static void check(int hours, int start, int end) {
+        if (hours < 1 || start < 1 || start > hours || end < 1 || end > hours) {
+            throw new IllegalArgumentException("The times must be between 1 and " + hours + ": " + start + " " + end);
+        }
+    }
+}
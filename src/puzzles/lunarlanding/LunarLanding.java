@@ -1,8 +1,9 @@
 package puzzles.lunarlanding;
 
-import puzzles.lunarlanding.gui.LunarLandingGUI;
 import puzzles.lunarlanding.model.LunarLandingConfig;
 import solver.Configuration;
+import solver.SolutionCache;
+import solver.SolveLimits;
 import solver.Solver;
 
 import java.util.*;
@@ -25,8 +26,10 @@ public class LunarLanding {
 
         System.out.println(args[0]);
         LunarLandingConfig luna = new LunarLandingConfig(args[0]);
-        Solver s = new Solver(luna);
-        List <Configuration> lst = new ArrayList<>(s.solver());
+        // boards that were solved before are read back from the solution cache instead of searched again
+        List <Configuration> lst = new ArrayList<>(SolutionCache.getDefault().getOrSolve(
+                SolutionCache.keyForFile("lunarlanding", args[0]), luna,
+                start -> new Solver(start).solve(SolveLimits.NONE)).getPath());
         if (lst.size() > 0) {
             for (Configuration c : lst) {
                 System.out.println(c + "\n");
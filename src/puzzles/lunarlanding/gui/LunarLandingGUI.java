@@ -11,6 +11,7 @@ import puzzles.lunarlanding.model.*;
 import java.io.FileNotFoundException;
 import java.util.*;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.control.*;
 import javafx.scene.image.*;
 import javafx.scene.layout.*;
@@ -300,6 +301,11 @@ public class LunarLandingGUI extends Application
 
     @Override
     public void update( LunarLandingModel lunarLandingModel, Object o ) {
+        // hints that were still being worked out are announced from the hint thread
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> update(lunarLandingModel, o));
+            return;
+        }
         board = makeBoard();
         window.setCenter(board);
         announcement.setText((String) o);
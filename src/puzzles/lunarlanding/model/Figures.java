@@ -1,12 +1,14 @@
 package puzzles.lunarlanding.model;
 
 /**
- * This class represents a figure on the board
+ * This class represents a figure on the board. Figures can not be changed, moving a figure makes a new one.
+ * Inside a LunarLandingConfig the figures are only kept as positions, where a position packs the row and the column
+ * of a figure into one int (the row in the high 16 bits, the column in the low 16 bits)
  */
 public class Figures {
     private final String name; // the name of the figure
-    private int col; // the column in which the figure is
-    private int row; // the row in which the figure is
+    private final int col; // the column in which the figure is
+    private final int row; // the row in which the figure is
 
     /**
      * This constructor creates a new figure
@@ -28,14 +30,6 @@ public class Figures {
         return this.name;
     }
 
-    /**
-     * updates the column attribute of the figure
-     * @param col: the new value to update the column to
-     */
-    public void setCol(int col) {
-        this.col = col;
-    }
-
     /**
      * returns the column attribute of the figure
      * @return: the column of the figure
@@ -44,14 +38,6 @@ public class Figures {
         return this.col;
     }
 
-    /**
-     * updates the row attribute of the figure
-     * @param row: the new value to update the row to
-     */
-    public void setRow(int row) {
-        this.row = row;
-    }
-
     /**
      * returns the row attribute of the figure
      * @return: the row of the figure
@@ -60,6 +46,42 @@ public class Figures {
         return this.row;
     }
 
+    /**
+     * returns the position of the figure with the row and column packed into one int
+     * @return: the packed position of the figure
+     */
+    int getPosition() {
+        return pack(this.row, this.col);
+    }
+
+    /**
+     * packs a row and a column into one int
+     * @param row: the row, between 0 and 65535
+     * @param col: the column, between 0 and 65535
+     * @return: the packed position
+     */
+    static int pack(int row, int col) {
+        return (row << 16) | col;
+    }
+
+    /**
+     * returns the row of a packed position
+     * @param position: the packed position
+     * @return: the row
+     */
+    static int rowOf(int position) {
+        return position >>> 16;
+    }
+
+    /**
+     * returns the column of a packed position
+     * @param position: the packed position
+     * @return: the column
+     */
+    static int colOf(int position) {
+        return position & 0xFFFF;
+    }
+
     /**
      * Returns true if two figures are equal
      * @param other: the object to compare the current figure to
@@ -75,6 +97,15 @@ public class Figures {
         return result;
     }
 
+    /**
+     * return the hashcode for the figure, which matches equals
+     * @return: the hashcode for the figure
+     */
+    @Override
+    public int hashCode() {
+        return this.name.hashCode() * 31 + getPosition();
+    }
+
     /**
      * return the string representation of the figure
      * @return: the string representation of the figure
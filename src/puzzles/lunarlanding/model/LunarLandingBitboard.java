@@ -0,0 +1,97 @@
+package puzzles.lunarlanding.model;
+
+/**
+ * This class keeps which cells of a board are taken as one long per row and one long per column, so the closest
+ * figure in any direction can be found with a single bit scan instead of a loop over every figure. It only works on
+ * boards with at most 64 rows and 64 columns. A bitboard is scratch space: it is filled with the figures of the
+ * config being expanded and cleared afterwards, so one bitboard can be used for every config a thread expands
+ * @author Romant Bhattarai
+ * November 2021
+ */
+class LunarLandingBitboard {
+    static final int MAX_SIZE = Long.SIZE; // The largest number of rows or columns a bitboard can hold
+
+    private final long[] rowMasks = new long[MAX_SIZE];    // Bit c of rowMasks[r] is set for a figure at (r, c)
+    private final long[] columnMasks = new long[MAX_SIZE]; // Bit r of columnMasks[c] is set for a figure at (r, c)
+    private int[] positions; // The positions the masks were filled with, null while the bitboard is not in use
+
+    /**
+     * returns true if a board is small enough to have a bitboard
+     * @param board: the board to check
+     * @return: true if the board has at most 64 rows and 64 columns
+     */
+    static boolean fits(LunarLandingBoard board) {
+        return board.getNumRows() <= MAX_SIZE && board.getNumColumns() <= MAX_SIZE;
+    }
+
+    /**
+     * sets the bits of the figures on a board that fits (see fits)
+     * @param positions: the packed positions of the figures, which must not change until clear is called
+     */
+    void fill(int[] positions) {
+        for (int position : positions) {
+            int row = Figures.rowOf(position);
+            int col = Figures.colOf(position);
+            this.rowMasks[row] |= 1L << col;
+            this.columnMasks[col] |= 1L << row;
+        }
+        this.positions = positions;
+    }
+
+    /**
+     * clears the rows and columns of the figures the bitboard was filled with, which leaves every mask empty
+     */
+    void clear() {
+        for (int position : this.positions) {
+            this.rowMasks[Figures.rowOf(position)] = 0;
+            this.columnMasks[Figures.colOf(position)] = 0;
+        }
+        this.positions = null;
+    }
+
+    /**
+     * returns true if the bitboard has been filled and not cleared yet
+     * @return: true if the bitboard is in use
+     */
+    boolean isInUse() {
+        return this.positions != null;
+    }
+
+    /**
+     * returns the number of cells between a cell and the closest figure in one direction
+     * @param row: the row of the cell
+     * @param col: the column of the cell
+     * @param rowStep: -1 for up, 1 for down, 0 to look along the row
+     * @param colStep: -1 for left, 1 for right, 0 to look along the column
+     * @return: the distance to the closest figure, or Integer.MAX_VALUE if nothing is in the way
+     */
+    int closest(int row, int col, int rowStep, int colStep) {
+        int result = Integer.MAX_VALUE;
+        if (colStep > 0) {
+            // -2L << col keeps only the bits above col (and nothing when col is 63)
+            long after = this.rowMasks[row] & (-2L << col);
+            if (after != 0) {
+                result = Long.numberOfTrailingZeros(after) - col;
+            }
+        }
+        else if (colStep < 0) {
+            long before = this.rowMasks[row] & ((1L << col) - 1);
+            if (before != 0) {
+                result = col - (Long.SIZE - 1 - Long.numberOfLeadingZeros(before));
+            }
+        }
+        else if (rowStep > 0) {
+            long after = this.columnMasks[col] & (-2L << row);
+            if (after != 0) {
+                result = Long.numberOfTrailingZeros(after) - row;
+            }
+        }
+        else if (rowStep < 0) {
+            long before = this.columnMasks[col] & ((1L << row) - 1);
+            if (before != 0) {
+                result = row - (Long.SIZE - 1 - Long.numberOfLeadingZeros(before));
+            }
+        }
+        return result;
+    }
+}
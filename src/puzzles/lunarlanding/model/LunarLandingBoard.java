@@ -0,0 +1,226 @@
+package puzzles.lunarlanding.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class represents the parts of a lunar landing puzzle that never change while it is being solved: the size of
+ * the board, where the lander is and the names of the figures. Moves never change the order of the figures, so each
+ * figure is a slot with a fixed name, and every distinct name is interned once into a small id. It is immutable, so
+ * every config made from the same file shares one board, and configs from different files can be solved at the same
+ * time without getting in each other's way
+ * @author Romant Bhattarai
+ * November 2021
+ */
+public class LunarLandingBoard {
+    private final int numRows;    // The number of rows on the board
+    private final int numColumns; // The number of columns on the board
+    private final int goalRow;    // The goalRow for the lunar landing
+    private final int goalColumn; // The goalColumn for the lunar landing
+    private final int cellBits;   // The number of bits needed for the index of any cell
+    private final String[] names;    // The distinct figure names, indexed by their id
+    private final int[] figureIds;   // The name id of the figure in each slot
+    private final int[] explorerSlots; // The slots of the figures named E
+    private final int[] helperSlots;   // The slots of every other figure (the robots)
+    private final boolean robotSymmetry; // True if configs that only swap robots around count as the same config
+
+    /**
+     * Creates a new board
+     * @param numRows: the number of rows on the board
+     * @param numColumns: the number of columns on the board
+     * @param goalRow: the row of the lander
+     * @param goalColumn: the column of the lander
+     * @param figureNames: the name of each figure, in the order the figures are kept in
+     */
+    public LunarLandingBoard(int numRows, int numColumns, int goalRow, int goalColumn, List<String> figureNames) {
+        if (numRows < 1 || numColumns < 1 || numRows > 0xFFFF || numColumns > 0xFFFF) {
+            throw new IllegalArgumentException("The board must have between 1 and 65535 rows and columns: " + numRows +
+                    " " + numColumns);
+        }
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+        this.goalRow = goalRow;
+        this.goalColumn = goalColumn;
+        this.cellBits = Integer.SIZE - Integer.numberOfLeadingZeros(numRows * numColumns - 1);
+
+        // intern the names, giving each new name the next id
+        List<String> distinct = new ArrayList<>();
+        List<Integer> explorers = new ArrayList<>();
+        List<Integer> helpers = new ArrayList<>();
+        this.figureIds = new int[figureNames.size()];
+        for (int i = 0; i < figureNames.size(); i++) {
+            String name = figureNames.get(i);
+            int id = distinct.indexOf(name);
+            if (id < 0) {
+                id = distinct.size();
+                distinct.add(name);
+            }
+            this.figureIds[i] = id;
+            if (name.equals("E")) {
+                explorers.add(i);
+            }
+            else {
+                helpers.add(i);
+            }
+        }
+        this.names = distinct.toArray(new String[0]);
+        this.explorerSlots = explorers.stream().mapToInt(Integer::intValue).toArray();
+        this.helperSlots = helpers.stream().mapToInt(Integer::intValue).toArray();
+        this.robotSymmetry = false;
+    }
+
+    /**
+     * Creates a copy of a board with robot symmetry turned on or off
+     * @param other: the board to copy
+     * @param robotSymmetry: true if configs that only swap robots around count as the same config
+     */
+    private LunarLandingBoard(LunarLandingBoard other, boolean robotSymmetry) {
+        this.numRows = other.numRows;
+        this.numColumns = other.numColumns;
+        this.goalRow = other.goalRow;
+        this.goalColumn = other.goalColumn;
+        this.cellBits = other.cellBits;
+        this.names = other.names;
+        this.figureIds = other.figureIds;
+        this.explorerSlots = other.explorerSlots;
+        this.helperSlots = other.helperSlots;
+        this.robotSymmetry = robotSymmetry;
+    }
+
+    /**
+     * returns this board with robot symmetry turned on or off. Every robot only ever blocks other figures, so two
+     * configs where the robots sit on the same cells (in any order) and the explorers are in the same places are
+     * the same distance from the goal. With robot symmetry on, those configs are equal, which can make the number of
+     * configs a solver visits smaller by up to the factorial of the number of robots
+     * @param robotSymmetry: true if configs that only swap robots around count as the same config
+     * @return: the board with the given setting
+     */
+    public LunarLandingBoard withRobotSymmetry(boolean robotSymmetry) {
+        return robotSymmetry == this.robotSymmetry ? this : new LunarLandingBoard(this, robotSymmetry);
+    }
+
+    /**
+     * returns true if configs that only swap robots around count as the same config
+     * @return: true if robot symmetry is on
+     */
+    public boolean hasRobotSymmetry() {
+        return this.robotSymmetry;
+    }
+
+    /**
+     * returns the number of rows on the board
+     * @return: the board's number of rows
+     */
+    public int getNumRows() {
+        return this.numRows;
+    }
+
+    /**
+     * returns the number of columns on the board
+     * @return: the board's number of columns
+     */
+    public int getNumColumns() {
+        return this.numColumns;
+    }
+
+    /**
+     * returns the goalRow
+     * @return: the goal row
+     */
+    public int getGoalRow() {
+        return this.goalRow;
+    }
+
+    /**
+     * returns the goal column
+     * @return: the goal column
+     */
+    public int getGoalColumn() {
+        return this.goalColumn;
+    }
+
+    /**
+     * returns the number of bits needed for the index of any cell on the board
+     * @return: the number of bits for one cell index
+     */
+    public int getCellBits() {
+        return this.cellBits;
+    }
+
+    /**
+     * returns the packed position of the lander
+     * @return: the goal row and column packed into one int
+     */
+    int getGoalPosition() {
+        return Figures.pack(this.goalRow, this.goalColumn);
+    }
+
+    /**
+     * returns the number of figures on the board
+     * @return: the number of figure slots
+     */
+    public int getFigureCount() {
+        return this.figureIds.length;
+    }
+
+    /**
+     * returns the name id of the figure in a slot
+     * @param slot: the index of the figure
+     * @return: the interned id of the figure's name
+     */
+    public int getFigureId(int slot) {
+        return this.figureIds[slot];
+    }
+
+    /**
+     * returns the name of the figure in a slot, which is always the same String object for the same name
+     * @param slot: the index of the figure
+     * @return: the name of the figure
+     */
+    public String getFigureName(int slot) {
+        return this.names[this.figureIds[slot]];
+    }
+
+    /**
+     * returns the slots of the explorers. The array is shared, so it must not be changed
+     * @return: the slots of the figures named E
+     */
+    int[] getExplorerSlots() {
+        return this.explorerSlots;
+    }
+
+    /**
+     * returns the slots of the robots. The array is shared, so it must not be changed
+     * @return: the slots of the figures not named E
+     */
+    int[] getHelperSlots() {
+        return this.helperSlots;
+    }
+
+    /**
+     * determine if this board is the same as the object passed in
+     * @param other: the object to compare the board to
+     * @return: true if both boards have the same size and goal, false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        boolean result = false;
+        if (other instanceof LunarLandingBoard) {
+            LunarLandingBoard o = (LunarLandingBoard) other;
+            result = this == o || (this.robotSymmetry == o.robotSymmetry && this.numRows == o.numRows &&
+                    this.numColumns == o.numColumns && this.goalRow == o.goalRow && this.goalColumn == o.goalColumn &&
+                    Arrays.equals(this.names, o.names) && Arrays.equals(this.figureIds, o.figureIds));
+        }
+        return result;
+    }
+
+    /**
+     * return the hashcode for the board
+     * @return: the hashcode for the board
+     */
+    @Override
+    public int hashCode() {
+        return ((this.numRows * 31 + this.numColumns) * 31 + this.goalRow) * 31 + this.goalColumn;
+    }
+}
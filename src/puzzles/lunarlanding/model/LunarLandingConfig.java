@@ -1,24 +1,31 @@
 package puzzles.lunarlanding.model;
 
 import solver.Configuration;
+import solver.EncodableConfiguration;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * This is a class that represents a LunarLandingConfiguration
  * @author Romant Bhattarai
  * November 2021
  */
-public class LunarLandingConfig implements Configuration {
-    private static int numRows;    // The number of rows on the board
-    private static int numColumns; // The number of columns on the board
-    private static int goalRow;    // The goalRow for the lunar landing
-    private static int goalColumn; // The goalColumn for the lunar landing
+public class LunarLandingConfig implements EncodableConfiguration {
+    private final LunarLandingBoard board; // The size and goal of the board, shared by every config from one file
     final static String emptyStr = ""; // An empty String
-    private List<Figures> figures = new ArrayList<>(); // List of all the figures
+    private final int[] positions; // The packed position of each figure, in the same order as the board's names
+    private static final ThreadLocal<LunarLandingBitboard> SCRATCH =
+            ThreadLocal.withInitial(LunarLandingBitboard::new); // The bitboard each thread expands its configs with
+    private static final int[] ALL_STEPS = {0, 1, 0, -1, -1, 0, 1, 0}; // right, left, up and down as row, col steps
+    private static final int[] RIGHT_STEPS = {0, 1};
+    private static final int[] LEFT_STEPS = {0, -1};
+    private static final int[] UP_STEPS = {-1, 0};
+    private static final int[] DOWN_STEPS = {1, 0};
+    private final int[] canonical; // The positions equals and hashCode compare (see canonicalOf)
 
     /**
      * takes in an input file and reads line by line and creates a LunarLandingConfig
@@ -30,18 +37,20 @@ public class LunarLandingConfig implements Configuration {
         Scanner in = new Scanner(new File(filename));
 
         // read the number of rows on the board
-        numRows = in.nextInt();
+        int numRows = in.nextInt();
 
         // read the number of columns on the board
-        numColumns = in.nextInt();
+        int numColumns = in.nextInt();
 
         // read the goal row
-        goalRow = in.nextInt();
+        int goalRow = in.nextInt();
 
         //read the goal column
-        goalColumn = in.nextInt();
+        int goalColumn = in.nextInt();
 
         in.nextLine();
+        List<String> names = new ArrayList<>();
+        List<Integer> figurePositions = new ArrayList<>();
         // read till the end of the file
         while(in.hasNextLine()) {
             String line = in.nextLine();
@@ -53,22 +62,50 @@ public class LunarLandingConfig implements Configuration {
             String letter = lineSplit[0];
             int rowPos = Integer.parseInt(lineSplit[1]);
             int colPos = Integer.parseInt(lineSplit[2]);
-            // Create a new figure with the arguments
-            Figures figure = new Figures (letter, rowPos, colPos);
-            // add figure to the list of figures
-            this.figures.add(figure);
+            // add the name and the position of the figure
+            names.add(letter);
+            figurePositions.add(Figures.pack(rowPos, colPos));
         }
 
         // close the scanner/file
         in.close();
+
+        this.board = new LunarLandingBoard(numRows, numColumns, goalRow, goalColumn, names);
+        this.positions = figurePositions.stream().mapToInt(Integer::intValue).toArray();
+        this.canonical = canonicalOf(this.board, this.positions);
     }
 
     /**
-     * This constructor takes in a list of Figures and creates a new LunarLandingConfig
+     * This constructor takes in a board and a list of Figures and creates a new LunarLandingConfig
+     * @param board: The board the figures are on
      * @param figures: The list of Figures
      */
-    public LunarLandingConfig (List<Figures> figures) {
-        this.figures = new ArrayList<>(figures);
+    public LunarLandingConfig (LunarLandingBoard board, List<Figures> figures) {
+        if (figures.size() != board.getFigureCount()) {
+            throw new IllegalArgumentException("Expected " + board.getFigureCount() + " figures: " + figures);
+        }
+        this.board = board;
+        this.positions = new int[figures.size()];
+        for (int i = 0; i < figures.size(); i++) {
+            // the figures have to be in the same order as the names on the board
+            if (!figures.get(i).getName().equals(board.getFigureName(i))) {
+                throw new IllegalArgumentException("Expected " + board.getFigureName(i) + " at index " + i + ": " +
+                        figures.get(i));
+            }
+            this.positions[i] = figures.get(i).getPosition();
+        }
+        this.canonical = canonicalOf(this.board, this.positions);
+    }
+
+    /**
+     * This constructor is used for neighbors and decoding, where the positions were already made for this config
+     * @param board: The board the figures are on
+     * @param positions: The packed positions of the figures, which are not copied
+     */
+    private LunarLandingConfig (LunarLandingBoard board, int[] positions) {
+        this.board = board;
+        this.positions = positions;
+        this.canonical = canonicalOf(board, positions);
     }
 
     /**
@@ -76,7 +113,9 @@ public class LunarLandingConfig implements Configuration {
      * @param other: The LunarLandingConfig to make a copy of
      */
     public LunarLandingConfig(LunarLandingConfig other) {
-        this.figures = new ArrayList<>(other.figures);
+        this.board = other.board;
+        this.positions = other.positions.clone();
+        this.canonical = canonicalOf(this.board, this.positions);
     }
 
     /**
@@ -86,54 +125,55 @@ public class LunarLandingConfig implements Configuration {
     @Override
     public Collection<Configuration> getNeighbors() {
         List<Configuration> neighbors = new ArrayList<>();
-        neighbors.addAll(getRightNeighbors());
-        neighbors.addAll(getLeftNeighbors());
-        neighbors.addAll(getUpNeighbors());
-        neighbors.addAll(getDownNeighbors());
+        forEachNeighbor(neighbors::add);
         return neighbors;
 
     }
 
     /**
-     * returns a list of Configurations that can be created by moving all pieces on the current board to the right
-     * @return: list of all the right neighbors
+     * hands each neighbor to the visitor as soon as it is made, in the same order as getNeighbors, without building
+     * any lists of neighbors
+     * @param visitor: the consumer that is given each neighbor
      */
-    public List<Configuration> getRightNeighbors() {
-        List <Configuration> rightNeighbors = new ArrayList<>();
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> visitor) {
+        forEachSlide(ALL_STEPS, visitor);
+    }
 
-        // Iterate through the list of figures
-        for (int i = 0; i < this.figures.size(); i++) {
-            // Copy the contents of current list to a temp list
-            List <Figures> x = new ArrayList<>(this.figures);
-            // Create an empty list of Integers
-            List <Integer> y = new ArrayList<>();
-            // Iterate through the list of figures again
-            for (int j = 0; j < this.figures.size(); j++) {
-                //If there are other figures in the list in the same row with greater columns
-                if (i != j && x.get(i).getRow() == x.get(j).getRow() && x.get(i).getCol() < x.get(j).getCol()) {
-                    // add those columns to the list of Integers
-                    y.add(x.get(j).getCol());
-                }
+    /**
+     * hands the neighbors for each direction to the visitor, in the order of the directions
+     * @param steps: the row step then the column step of each direction (see forEachSlide)
+     * @param visitor: the consumer that is given each neighbor
+     */
+    private void forEachSlide(int[] steps, Consumer<Configuration> visitor) {
+        // fill this thread's bitboard with the figures, unless the board is too big for one
+        LunarLandingBitboard occupied = null;
+        if (LunarLandingBitboard.fits(this.board)) {
+            occupied = SCRATCH.get();
+            if (occupied.isInUse()) {
+                // the visitor is expanding another config on this thread, so that one keeps the scratch bitboard
+                occupied = new LunarLandingBitboard();
             }
-            // if there is something in the integer list
-            if (y.size() > 0) {
-                // Sort the list of columns that are greater than the column of the current figure
-                Collections.sort(y);
-                // if the smallest column in list y is greater than the column of the figure in the ith index of list x by 2 or more, then
-                if (y.get(0) - x.get(i).getCol() > 1) {
-                    // Create a new copy figure of the figure in index i of list x
-                    Figures a = new Figures(x.get(i).getName(), x.get(i).getRow(), x.get(i).getCol());
-                    // set the column to 1 less than the smallest column list y
-                    a.setCol(y.get(0) - 1);
-
-                    // replace the old figure in index i of list x with the new figure with updated column
-                    x.set(i, a);
-
-                    // Create a new LunarLandingConfig by passing in list x and add the new config to the rightNeighbors list
-                    rightNeighbors.add(new LunarLandingConfig(x));
-                }
+            occupied.fill(this.positions);
+        }
+        try {
+            for (int i = 0; i < steps.length; i += 2) {
+                forEachSlide(steps[i], steps[i + 1], visitor, occupied);
+            }
+        } finally {
+            if (occupied != null) {
+                occupied.clear();
             }
         }
+    }
+
+    /**
+     * returns a list of Configurations that can be created by moving all pieces on the current board to the right
+     * @return: list of all the right neighbors
+     */
+    public List<Configuration> getRightNeighbors() {
+        List <Configuration> rightNeighbors = new ArrayList<>();
+        forEachSlide(RIGHT_STEPS, rightNeighbors::add);
         return rightNeighbors;
     }
 
@@ -143,38 +183,7 @@ public class LunarLandingConfig implements Configuration {
      */
     public List<Configuration> getLeftNeighbors() {
         List <Configuration> leftNeighbors = new ArrayList<>();
-
-        // Iterate through the list of figures
-        for (int i = 0; i < this.figures.size(); i++) {
-            // Copy the contents of current list to a temp list
-            List <Figures> x = new ArrayList<>(this.figures);
-            // Create an empty list of Integers
-            List <Integer> y = new ArrayList<>();
-            // Iterate through the list of figures again
-            for (int j = 0; j < this.figures.size(); j++) {
-                // If there are other figures in the list with same row and smaller columns
-                if (i != j && x.get(i).getRow() == x.get(j).getRow() && x.get(i).getCol() > x.get(j).getCol()) {
-                    // add those columns to the list of Integers
-                    y.add(x.get(j).getCol());
-                }
-            }
-            // if there is something in the integer list
-            if (y.size() > 0) {
-                // Sort the list of columns that are smaller than the column of the current figure
-                Collections.sort(y);
-                // if the largest column in the list y is smaller than the column of the figure in index i of list x by 2 or more, then
-                if (x.get(i).getCol() - y.get(y.size() - 1) > 1) {
-                    // Create a new copy of figure of the figure in index i of list x
-                    Figures a = new Figures(x.get(i).getName(), x.get(i).getRow(), x.get(i).getCol());
-                    // set the column to 1 more than the largest column in list y
-                    a.setCol(y.get(y.size() - 1) + 1);
-                    // replace the old figure in index i of list with the new figure with updated column
-                    x.set(i, a);
-                    // Create a new LunarLandingConfig by passing in list x and add the new config to the leftNeighbors list
-                    leftNeighbors.add(new LunarLandingConfig(x));
-                }
-            }
-        }
+        forEachSlide(LEFT_STEPS, leftNeighbors::add);
         return leftNeighbors;
     }
 
@@ -184,38 +193,7 @@ public class LunarLandingConfig implements Configuration {
      */
     public List<Configuration> getUpNeighbors() {
         List <Configuration> upNeighbors = new ArrayList<>();
-
-        // Iterate through the list of figures
-        for (int i = 0; i < this.figures.size(); i++) {
-            // Copy the contents of current list to a temp list
-            List<Figures> x = new ArrayList<>(this.figures);
-            // Create an empty list of Integers
-            List<Integer> y = new ArrayList<>();
-            // Iterate through the list of figures again
-            for (int j = 0; j < this.figures.size(); j++) {
-                // If there are other figures in the list with same column and smaller rows
-                if (j != i && x.get(i).getCol() == x.get(j).getCol() && x.get(i).getRow() > x.get(j).getRow()) {
-                    // add those rows to the list of Integers
-                    y.add(x.get(j).getRow());
-                }
-            }
-            // if there is something in the integer list of rows
-            if (y.size() > 0) {
-                // Sort the list of rows that are smaller than the row of the current figure
-                Collections.sort(y);
-                // if the largest row in list y is smaller than the row of the current figure by 2
-                if (x.get(i).getRow() - y.get(y.size() -1) > 1) {
-                    // Create a new copy of the current figure
-                    Figures a = new Figures(x.get(i).getName(), x.get(i).getRow(), x.get(i).getCol());
-                    // set the row to 1 more than the largest row in the list
-                    a.setRow(y.get(y.size() - 1) + 1);
-                    // replace the current figure with the newly created figure with the updated row
-                    x.set(i, a);
-                    // Create a new LunarLandingConfig by passing in list x and add the new config to the upNeighbors list
-                    upNeighbors.add(new LunarLandingConfig(x));
-                }
-            }
-        }
+        forEachSlide(UP_STEPS, upNeighbors::add);
         return upNeighbors;
     }
 
@@ -225,162 +203,97 @@ public class LunarLandingConfig implements Configuration {
      */
     public List<Configuration> getDownNeighbors() {
         List <Configuration> downNeighbors = new ArrayList<>();
-
-        // Iterate through the list of figures
-        for (int i = 0; i < this.figures.size(); i++) {
-            // Copy the contents of current list to a temp list
-            List<Figures> x = new ArrayList<>(this.figures);
-            // Create an empty list of Integers
-            List<Integer> y = new ArrayList<>();
-            // Iterate through the list of figures again
-            for (int j = 0; j < this.figures.size(); j++) {
-                // If there are other figures in the list with same column and greater rows
-                if (j != i && x.get(i).getCol() == x.get(j).getCol() && x.get(i).getRow() < x.get(j).getRow()) {
-                    // add those rows to the list of Integers
-                    y.add(x.get(j).getRow());
-                }
-            }
-            // if there is something in the Integer list of rows
-            if (y.size() > 0) {
-                // Sort the list of rows
-                Collections.sort(y);
-                // If the smallest row in the list y is greater than the row of the current figure by 2
-                if (y.get(0) - x.get(i).getRow() > 1) {
-                    // Create a new copy of the current figure
-                    Figures a = new Figures(x.get(i).getName(), x.get(i).getRow(), x.get(i).getCol());
-                    // set the row to 1 less than the smallest row in the list
-                    a.setRow(y.get(0) - 1);
-                    // replace the current figure with the newly created figure with updated row
-                    x.set(i, a);
-                    // Create a new LunarLandingConfig by passing in list x and add the new config to the downNeighbors
-                    downNeighbors.add(new LunarLandingConfig(x));
-                }
-            }
-        }
+        forEachSlide(DOWN_STEPS, downNeighbors::add);
         return downNeighbors;
     }
 
     /**
-     * Moves a figure to the desired direction
-     * @param toMove: The figure to move
-     * @param direction: The direction to move toward
+     * slides each figure in one direction until it stops next to the closest figure in its way, and hands each new
+     * configuration to the visitor. A figure that has nothing in its way, or is already touching the closest figure,
+     * can not move in that direction
+     * @param rowStep: -1 for up, 1 for down, 0 to move along the row
+     * @param colStep: -1 for left, 1 for right, 0 to move along the column
+     * @param visitor: the consumer that is given each neighbor
+     * @param occupied: the bitboard filled with the figures of this config, or null to loop over the figures
      */
-    public void moveFigure(Figures toMove, String direction) {
-        // if figure need to move up
-        if (direction.equals("UP")) {
-            // if it is a valid move
-            if (isValidMove(toMove, direction)) {
-                // Create a new list of Integer
-                List<Integer> toSort = new ArrayList<>();
-                // Iterate through the list of current figures
-                for (Figures fig : this.getFigures()) {
-                    // if other figures in the list are in the same column but smaller rows
-                    if (toMove.getRow() > fig.getRow() && toMove.getCol() == fig.getCol()) {
-                        // add that row to the list of Integer
-                        toSort.add(fig.getRow());
-                    }
-                }
-                // Sort the list
-                Collections.sort(toSort);
-                // Initialize a variable and store a value that is one greater than the largest value in the list
-                int row = toSort.get(toSort.size() - 1) + 1;
-                // Iterate through the list of figures
-                for (Figures figures : this.getFigures()) {
-                    // if one of the figures in the current configs figure list equals the piece to move
-                    if (figures.equals(toMove)) {
-                        // update the row of that piece in the current config
-                        figures.setRow(row);
-                    }
-                }
+    private void forEachSlide(int rowStep, int colStep, Consumer<Configuration> visitor,
+                              LunarLandingBitboard occupied) {
+        // Iterate through the figures
+        for (int i = 0; i < this.positions.length; i++) {
+            int closest = closest(i, rowStep, colStep, occupied);
+            // The positions are only copied when the figure can really move
+            if (closest != Integer.MAX_VALUE && closest > 1) {
+                int[] x = this.positions.clone();
+                x[i] = Figures.pack(Figures.rowOf(x[i]) + rowStep * (closest - 1),
+                        Figures.colOf(x[i]) + colStep * (closest - 1));
+                visitor.accept(new LunarLandingConfig(this.board, x));
             }
         }
+    }
 
-        // if figure needs to move down
-        else if (direction.equals("DOWN")) {
-            // if it is a valid move
-            if (isValidMove(toMove, direction)) {
-                // Create a new list of Integer
-                List<Integer> toSort = new ArrayList<>();
-                // Iterate through the list of current figures on the board
-                for (Figures fig : this.getFigures()) {
-                    // if another figure on the board had the same column and greater row
-                    if (toMove.getRow() < fig.getRow() && toMove.getCol() == fig.getCol()) {
-                        // add that row to the list of Integer
-                        toSort.add(fig.getRow());
-                    }
-                }
-                // sort the list
-                Collections.sort(toSort);
-                // Initialize a variable by storing a value that is one less than the lowest value in the list
-                int row = toSort.get(0) - 1;
-                // Iterate through the list of figures on the board
-                for (Figures figures : this.getFigures()) {
-                    // if one of the figures on the board equals the piece to move
-                    if (figures.equals(toMove)) {
-                        // update the row of that piece on the board
-                        figures.setRow(row);
-                    }
-                }
-            }
+    /**
+     * returns the number of cells between a figure and the closest figure in one direction
+     * @param slot: the index of the figure
+     * @param rowStep: -1 for up, 1 for down, 0 to look along the row
+     * @param colStep: -1 for left, 1 for right, 0 to look along the column
+     * @param occupied: the bitboard filled with the figures of this config, or null to loop over the figures
+     * @return: the distance to the closest figure, or Integer.MAX_VALUE if nothing is in the way
+     */
+    private int closest(int slot, int rowStep, int colStep, LunarLandingBitboard occupied) {
+        int row = Figures.rowOf(this.positions[slot]);
+        int col = Figures.colOf(this.positions[slot]);
+        // use a bit scan when there is a bitboard
+        if (occupied != null) {
+            return occupied.closest(row, col, rowStep, colStep);
         }
-
-        // if figure needs to move left
-        else if (direction.equals("LEFT")) {
-            // if it is a valid move
-            if (isValidMove(toMove, direction)) {
-                // Create a new list of Integer
-                List<Integer> toSort = new ArrayList<>();
-                // Iterate through the list of current figures on the board
-                for (Figures fig : this.getFigures()) {
-                    // if another figure on the board has the same row and smaller column
-                    if (toMove.getRow() == fig.getRow() && toMove.getCol() > fig.getCol()) {
-                        // add that column to the list of Integer
-                        toSort.add(fig.getCol());
-                    }
+        int closest = Integer.MAX_VALUE;
+        for (int j = 0; j < this.positions.length; j++) {
+            if (slot != j) {
+                int otherRow = Figures.rowOf(this.positions[j]);
+                int otherCol = Figures.colOf(this.positions[j]);
+                int distance = Integer.MAX_VALUE;
+                if (colStep != 0 && otherRow == row) {
+                    distance = (otherCol - col) * colStep;
                 }
-                // sort the list
-                Collections.sort(toSort);
-                // Initialize a variable by storing a value that is one more than the largest value in the list of Integer
-                int col = toSort.get(toSort.size() - 1) + 1;
-                // Iterate through the list of figures on the board
-                for (Figures figures : this.getFigures()) {
-                    // if one of the figures on the board equals the piece to move
-                    if (figures.equals(toMove)) {
-                        // update the column of that piece on the board
-                        figures.setCol(col);
-                    }
+                else if (rowStep != 0 && otherCol == col) {
+                    distance = (otherRow - row) * rowStep;
+                }
+                if (distance > 0 && distance < closest) {
+                    closest = distance;
                 }
             }
         }
+        return closest;
+    }
 
-        // if figure needs to move right
-        else if (direction.equals("RIGHT")) {
-            // if it is a valid move
-            if (isValidMove(toMove, direction)) {
-                // Create a new list of Integer
-                List<Integer> toSort = new ArrayList<>();
-                // Iterate through the list of current figures on the board
-                for (Figures fig : this.getFigures()) {
-                    // if another figure on the board has the same row and greater column
-                    if (toMove.getRow() == fig.getRow() && toMove.getCol() < fig.getCol()) {
-                        // add that column to the list of Integer
-                        toSort.add(fig.getCol());
-                    }
-                }
-                // sort the list
-                Collections.sort(toSort);
-                // Initialize a variable by storing a value that is one less than the smallest value in the list toSort
-                int col = toSort.get(0) - 1;
-                // Iterate through the list of figures on the board
-                for (Figures figures : this.getFigures()) {
-                    // if one of the figures on the board equals the piece to move
-                    if (figures.equals(toMove)) {
-                        // update the column of that piece on the board
-                        figures.setCol(col);
-                    }
-                }
+    /**
+     * returns a copy of this config with a figure moved in the desired direction. configs never change once they are
+     * made, so they can be shared with the solver threads
+     * @param toMove: The figure to move
+     * @param direction: The direction to move toward
+     * @return: the copy with the figure moved, or this config if the figure is not there or can not move that way
+     */
+    public LunarLandingConfig withMove(Figures toMove, String direction) {
+        // find the figure on the board that equals the piece to move
+        int slot = -1;
+        for (int i = 0; i < this.positions.length && slot < 0; i++) {
+            if (this.board.getFigureName(i).equals(toMove.getName()) && this.positions[i] == toMove.getPosition()) {
+                slot = i;
             }
         }
+        LunarLandingConfig result = this;
+        // if it is there and it is a valid move
+        if (slot >= 0 && isValidMove(toMove, direction)) {
+            int rowStep = direction.equals("UP") ? -1 : direction.equals("DOWN") ? 1 : 0;
+            int colStep = direction.equals("LEFT") ? -1 : direction.equals("RIGHT") ? 1 : 0;
+            // slide the piece until it is next to the closest figure in the way
+            int closest = closest(slot, rowStep, colStep, null);
+            int[] moved = this.positions.clone();
+            moved[slot] = Figures.pack(toMove.getRow() + rowStep * (closest - 1),
+                    toMove.getCol() + colStep * (closest - 1));
+            result = new LunarLandingConfig(this.board, moved);
+        }
+        return result;
     }
 
     /**
@@ -444,11 +357,81 @@ public class LunarLandingConfig implements Configuration {
     }
 
     /**
-     * returns the list of figures in the current config
+     * returns the list of figures in the current config. The figures are made from the positions each time, so
+     * changing the list does not change the config
      * @return: the list of figures in the current config
      */
     public List<Figures> getFigures() {
-        return this.figures;
+        List<Figures> figures = new ArrayList<>(this.positions.length);
+        for (int i = 0; i < this.positions.length; i++) {
+            figures.add(new Figures(this.board.getFigureName(i), Figures.rowOf(this.positions[i]),
+                    Figures.colOf(this.positions[i])));
+        }
+        return figures;
+    }
+
+    /**
+     * returns the board this config is on
+     * @return: the board with the size and the goal
+     */
+    public LunarLandingBoard getBoard() {
+        return this.board;
+    }
+
+    /**
+     * returns a copy of this config on the same board with robot symmetry turned on or off (see
+     * LunarLandingBoard.withRobotSymmetry). The figures keep their names and places, so a path found with robot
+     * symmetry on is still made of real moves
+     * @param robotSymmetry: true if configs that only swap robots around should count as the same config
+     * @return: the copy of this config
+     */
+    public LunarLandingConfig withRobotSymmetry(boolean robotSymmetry) {
+        return new LunarLandingConfig(this.board.withRobotSymmetry(robotSymmetry), this.positions.clone());
+    }
+
+    /**
+     * returns a copy of this config with the move that turns one config into the next made on it. the configs can
+     * name their robots differently from this config (with robot symmetry on, a path can swap robots around), so
+     * the move is found from the cell that was left and the cell that was landed on, and this config's figure on
+     * the cell that was left is the one that is moved
+     * @param from: the config before the move, with the same cells taken as this config
+     * @param to: the config after the move
+     * @return: the copy of this config with the move made
+     */
+    public LunarLandingConfig withMoveOf(LunarLandingConfig from, LunarLandingConfig to) {
+        Set<Integer> before = new HashSet<>();
+        for (int position : from.positions) {
+            before.add(position);
+        }
+        Set<Integer> after = new HashSet<>();
+        for (int position : to.positions) {
+            after.add(position);
+        }
+        int left = -1;
+        int landed = -1;
+        for (int position : from.positions) {
+            if (!after.contains(position)) {
+                left = position;
+            }
+        }
+        for (int position : to.positions) {
+            if (!before.contains(position)) {
+                landed = position;
+            }
+        }
+
+        int[] moved = this.positions.clone();
+        boolean found = false;
+        for (int i = 0; i < moved.length; i++) {
+            if (moved[i] == left) {
+                moved[i] = landed;
+                found = true;
+            }
+        }
+        if (left < 0 || landed < 0 || !found) {
+            throw new IllegalArgumentException("Not one move from a config like this one: " + from + "\n" + to);
+        }
+        return new LunarLandingConfig(this.board, moved);
     }
 
     /**
@@ -456,7 +439,7 @@ public class LunarLandingConfig implements Configuration {
      * @return: the board's number of rows
      */
     public int getNumRows() {
-        return numRows;
+        return this.board.getNumRows();
     }
 
     /**
@@ -464,7 +447,7 @@ public class LunarLandingConfig implements Configuration {
      * @return: the board's number of columns
      */
     public int getNumColumns() {
-        return numColumns;
+        return this.board.getNumColumns();
     }
 
     /**
@@ -472,7 +455,7 @@ public class LunarLandingConfig implements Configuration {
      * @return: the goal row
      */
     public int getGoalRow() {
-        return goalRow;
+        return this.board.getGoalRow();
     }
 
     /**
@@ -480,7 +463,7 @@ public class LunarLandingConfig implements Configuration {
      * @return: the goal column
      */
     public int getGoalColumn() {
-        return goalColumn;
+        return this.board.getGoalColumn();
     }
 
     /**
@@ -490,8 +473,9 @@ public class LunarLandingConfig implements Configuration {
     @Override
     public boolean isSolution() {
         boolean result = false;
-        for (Figures figure : figures) {
-            if (figure.getName().equals("E") && figure.getRow() == goalRow && figure.getCol() == goalColumn) {
+        int goal = this.board.getGoalPosition();
+        for (int slot : this.board.getExplorerSlots()) {
+            if (this.positions[slot] == goal) {
                 result = true;
                 break;
             }
@@ -499,6 +483,142 @@ public class LunarLandingConfig implements Configuration {
         return result;
     }
 
+    /**
+     * returns a lower bound on the number of moves needed for an explorer to reach the goal. A slide only changes
+     * the row or the column of one figure, so an explorer needs at least one move if it shares a row or column with
+     * the goal and at least two otherwise. Any explorer on the goal solves the puzzle, so the bound is the smallest
+     * one of all the explorers. (The Manhattan distance would overestimate, since one slide can cross many cells.)
+     * @return: 0, 1 or 2 moves
+     */
+    @Override
+    public int getHeuristic() {
+        int[] explorers = this.board.getExplorerSlots();
+        if (explorers.length == 0) {
+            return 0;
+        }
+        int result = 2;
+        int goalRow = this.board.getGoalRow();
+        int goalColumn = this.board.getGoalColumn();
+        for (int slot : explorers) {
+            int row = Figures.rowOf(this.positions[slot]);
+            int col = Figures.colOf(this.positions[slot]);
+            if (row == goalRow && col == goalColumn) {
+                result = 0;
+                break;
+            }
+            else if (row == goalRow || col == goalColumn) {
+                result = 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * encodes the config as the cell index (row * columns + column) of every figure, two bytes each, in the order of
+     * the canonical positions (see canonicalOf), so configs that are equal have the same key. The names are not
+     * stored since a move never changes the order of the figures
+     * @return: the encoded config
+     */
+    @Override
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(Short.BYTES * this.canonical.length);
+        for (int position : this.canonical) {
+            buffer.putShort((short) cellOf(position));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * decodes a config that was encoded from the same board. With robot symmetry on the robots are put back in
+     * sorted order, which might not be the order they had (see withMoveOf)
+     * @param key: the bytes returned by encode
+     * @return: the decoded config
+     */
+    @Override
+    public Configuration decode(byte[] key) {
+        ByteBuffer buffer = ByteBuffer.wrap(key);
+        int[] decoded = new int[this.positions.length];
+        for (int i = 0; i < decoded.length; i++) {
+            decoded[i] = positionOf(buffer.getShort() & 0xFFFF);
+        }
+        return new LunarLandingConfig(this.board, fromCanonical(decoded));
+    }
+
+    /**
+     * returns true if the cell index of every figure fits in 64 bits
+     * @return: true if the config can be packed into a long
+     */
+    @Override
+    public boolean fitsInLong() {
+        return this.positions.length * this.board.getCellBits() <= Long.SIZE;
+    }
+
+    /**
+     * packs the cell index of every figure into a long, in the order of the canonical positions like encode
+     * @return: the packed config
+     */
+    @Override
+    public long encodeLong() {
+        long key = 0;
+        int bits = this.board.getCellBits();
+        for (int position : this.canonical) {
+            key = (key << bits) | cellOf(position);
+        }
+        return key;
+    }
+
+    @Override
+    public Configuration decodeLong(long key) {
+        int bits = this.board.getCellBits();
+        int[] decoded = new int[this.positions.length];
+        // The last figure was packed into the lowest bits, so unpack from the end
+        for (int i = decoded.length - 1; i >= 0; i--) {
+            decoded[i] = positionOf((int) (key & ((1L << bits) - 1)));
+            key >>>= bits;
+        }
+        return new LunarLandingConfig(this.board, fromCanonical(decoded));
+    }
+
+    /**
+     * puts positions in the order of the canonical positions back in the order of the figures: the explorers into
+     * the explorer slots and the sorted robots into the robot slots
+     * @param canonical: the positions in the order of canonicalOf
+     * @return: the positions in the order of the board's names
+     */
+    private int[] fromCanonical(int[] canonical) {
+        if (!this.board.hasRobotSymmetry()) {
+            return canonical;
+        }
+        int[] explorers = this.board.getExplorerSlots();
+        int[] helpers = this.board.getHelperSlots();
+        int[] positions = new int[canonical.length];
+        for (int i = 0; i < explorers.length; i++) {
+            positions[explorers[i]] = canonical[i];
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            positions[helpers[i]] = canonical[explorers.length + i];
+        }
+        return positions;
+    }
+
+    /**
+     * turns a packed position into the cell index (row * columns + column) used by the encodings
+     * @param position: the packed position
+     * @return: the cell index
+     */
+    private int cellOf(int position) {
+        return Figures.rowOf(position) * this.board.getNumColumns() + Figures.colOf(position);
+    }
+
+    /**
+     * turns a cell index back into a packed position
+     * @param cell: the cell index
+     * @return: the packed position
+     */
+    private int positionOf(int cell) {
+        return Figures.pack(cell / this.board.getNumColumns(), cell % this.board.getNumColumns());
+    }
+
     /**
      * determine if current config is equal to object passed in
      * @param other: the object to compare the current config to
@@ -509,7 +629,7 @@ public class LunarLandingConfig implements Configuration {
         boolean result = false;
         if (other instanceof LunarLandingConfig) {
             LunarLandingConfig o = (LunarLandingConfig) other;
-            result = this.figures.equals(o.figures);
+            result = Arrays.equals(this.canonical, o.canonical) && this.board.equals(o.board);
         }
         return result;
     }
@@ -520,7 +640,32 @@ public class LunarLandingConfig implements Configuration {
      */
     @Override
     public int hashCode() {
-        return this.figures.hashCode();
+        return Arrays.hashCode(this.canonical);
+    }
+
+    /**
+     * returns the positions that equals and hashCode compare. Without robot symmetry those are the positions of
+     * every figure, with it they are the positions of the explorers followed by the positions of the robots in
+     * sorted order, so it does not matter which robot is on which cell
+     * @param board: the board the figures are on
+     * @param positions: the packed positions of the figures
+     * @return: the positions to compare
+     */
+    private static int[] canonicalOf(LunarLandingBoard board, int[] positions) {
+        if (!board.hasRobotSymmetry()) {
+            return positions;
+        }
+        int[] explorers = board.getExplorerSlots();
+        int[] helpers = board.getHelperSlots();
+        int[] key = new int[positions.length];
+        for (int i = 0; i < explorers.length; i++) {
+            key[i] = positions[explorers[i]];
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            key[explorers.length + i] = positions[helpers[i]];
+        }
+        Arrays.sort(key, explorers.length, key.length);
+        return key;
     }
 
     /**
@@ -529,6 +674,10 @@ public class LunarLandingConfig implements Configuration {
      */
     @Override
     public String toString() {
+        int numRows = this.board.getNumRows();
+        int numColumns = this.board.getNumColumns();
+        int goalRow = this.board.getGoalRow();
+        int goalColumn = this.board.getGoalColumn();
         String str = "\t ";
         for (int i = 0; i < numColumns; i++) {
             str += i + "\t";
@@ -542,13 +691,13 @@ public class LunarLandingConfig implements Configuration {
                 if(i == goalRow && j == goalColumn){
                     name = "!";
                 }
-                for (Figures fig : this.figures) {
-                    if (fig.getRow() == i && fig.getCol() == j) {
-                        if (fig.getRow() == goalRow && fig.getCol() == goalColumn) {
-                            name = "!" + fig.getName();
+                for (int k = 0; k < this.positions.length; k++) {
+                    if (this.positions[k] == Figures.pack(i, j)) {
+                        if (i == goalRow && j == goalColumn) {
+                            name = "!" + this.board.getFigureName(k);
                         }
                         else {
-                            name = fig.getName();
+                            name = this.board.getFigureName(k);
                         }
                     }
                 }
@@ -0,0 +1,124 @@
+package puzzles.lunarlanding.model;
+
+import solver.PuzzleGenerator;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * This class makes random Lunar Landing puzzles that are known to be solvable (see PuzzleGenerator). The explorer and
+ * the robots are put on random cells, and a cell the explorer can land on becomes the goal
+ * @author Romant Bhattarai
+ */
+public class LunarLandingGenerator extends PuzzleGenerator<LunarLandingConfig> {
+    private static final String[] ROBOT_NAMES = {"B", "G", "O", "P", "W", "Y"}; // the robots the GUI has colors for
+    private static final String EXPLORER = "E"; // the name of the explorer
+    private final List<String> names; // the explorer then the robots, in the order they are on the board
+
+    /**
+     * creates a new generator
+     * @param numRows: the number of rows on the board
+     * @param numColumns: the number of columns on the board
+     * @param robots: the number of robots
+     * @param targetDepth: the number of moves the solution should take
+     * @param seed: the seed for the random placement
+     */
+    public LunarLandingGenerator(int numRows, int numColumns, int robots, int targetDepth, long seed) {
+        this(numRows, numColumns, robots, targetDepth, seed, DEFAULT_MAX_CONFIGS);
+    }
+
+    /**
+     * creates a new generator
+     * @param numRows: the number of rows on the board
+     * @param numColumns: the number of columns on the board
+     * @param robots: the number of robots
+     * @param targetDepth: the number of moves the solution should take
+     * @param seed: the seed for the random placement
+     * @param maxConfigs: the most configs the search of each layout can visit
+     */
+    public LunarLandingGenerator(int numRows, int numColumns, int robots, int targetDepth, long seed,
+                                 int maxConfigs) {
+        super(numRows, numColumns, targetDepth, seed, maxConfigs);
+        if (robots < 1 || (long) robots + 1 > (long) numRows * numColumns) {
+            throw new IllegalArgumentException("Can not fit the explorer and " + robots + " robots on a " +
+                    numRows + "x" + numColumns + " board");
+        }
+        this.names = new ArrayList<>();
+        this.names.add(EXPLORER);
+        for (int i = 0; i < robots; i++) {
+            this.names.add(ROBOT_NAMES[i % ROBOT_NAMES.length]);
+        }
+    }
+
+    /**
+     * makes a puzzle and prints it or writes it to a file
+     * @param args: rows, columns, robots, target depth, seed and optionally the file to write
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.out.println("Usage: java LunarLandingGenerator rows columns robots depth seed [file]");
+        } else {
+            LunarLandingGenerator generator = new LunarLandingGenerator(Integer.parseInt(args[0]),
+                    Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                    Long.parseLong(args[4]));
+            write(generator.format(generator.generate()), args.length > 5 ? args[5] : null);
+        }
+    }
+
+    /**
+     * writes a puzzle in the format read by the LunarLandingConfig file constructor, with the depth and the seed
+     * after the figures
+     * @param config: the start of the puzzle
+     * @return: the contents of the puzzle file
+     */
+    @Override
+    public String format(LunarLandingConfig config) {
+        StringBuilder text = new StringBuilder();
+        text.append(config.getNumRows()).append(' ').append(config.getNumColumns()).append(' ')
+                .append(config.getGoalRow()).append(' ').append(config.getGoalColumn()).append('\n');
+        for (Figures figure : config.getFigures()) {
+            text.append(figure.getName()).append(' ').append(figure.getRow()).append(' ').append(figure.getCol())
+                    .append('\n');
+        }
+        return text.append(trailer()).toString();
+    }
+
+    @Override
+    protected LunarLandingConfig layout(Random random) {
+        // pick a different cell for each figure, the explorer first
+        int cells = getNumberOfRows() * getNumberOfColumns();
+        Set<Integer> taken = new HashSet<>();
+        List<Figures> figures = new ArrayList<>();
+        for (String name : this.names) {
+            int cell = random.nextInt(cells);
+            while (!taken.add(cell)) {
+                cell = random.nextInt(cells);
+            }
+            figures.add(new Figures(name, cell / getNumberOfColumns(), cell % getNumberOfColumns()));
+        }
+        // the robots are all alike, so the layout is searched with robot symmetry on
+        return new LunarLandingConfig(new LunarLandingBoard(getNumberOfRows(), getNumberOfColumns(),
+                figures.get(0).getRow(), figures.get(0).getCol(), this.names).withRobotSymmetry(true), figures);
+    }
+
+    @Override
+    protected BitSet goalCells(LunarLandingConfig start) {
+        // any cell the explorer lands on can be the goal
+        BitSet goalCells = new BitSet();
+        goalCells.set(0, getNumberOfRows() * getNumberOfColumns());
+        return goalCells;
+    }
+
+    @Override
+    protected int moverCell(LunarLandingConfig config) {
+        Figures explorer = config.getFigures().get(0);
+        return cell(explorer.getRow(), explorer.getCol());
+    }
+
+    @Override
+    protected LunarLandingConfig withGoal(LunarLandingConfig start, int row, int col) {
+        return new LunarLandingConfig(new LunarLandingBoard(getNumberOfRows(), getNumberOfColumns(), row, col,
+                this.names), start.getFigures());
+    }
+}
@@ -2,12 +2,16 @@ package puzzles.lunarlanding.model;
 
 import puzzles.lunarlanding.LunarLanding;
 import solver.Configuration;
-import solver.Solver;
+import solver.HintService;
+import solver.SolutionCache;
+import solver.SolveLimits;
+import solver.SolveResult;
 import util.Observer;
 
 import java.util.LinkedList;
 import java.util.*;
 import java.io.*;
+import java.time.Duration;
 
 /**
  * This class represents the model for GUI and the PTUI.
@@ -16,12 +20,18 @@ import java.io.*;
  */
 public class LunarLandingModel {
 
+    // the longest the hint service can spend on a table of the whole board before it searches from the config instead
+    private static final SolveLimits HINT_LIMITS = new SolveLimits(Duration.ofSeconds(2), 0, null);
+
     // state variables for the model
     private LunarLandingConfig currentConfig;
     private String file;
     private List<Observer<LunarLandingModel, Object>> observers;
     private int row;
     private int col;
+    // works out the path to the goal in the background after every load and move, with robot symmetry on
+    private final HintService hints = new HintService(HINT_LIMITS);
+    private boolean hintWanted;
 
     /**
      * Takes in a file name and creates a new LunarLandingModel
@@ -32,6 +42,8 @@ public class LunarLandingModel {
         this.observers = new LinkedList<>();
         this.file = fileName;
         this.currentConfig = loadLunarLander(this.file);
+        this.hints.setListener(this::hintReady);
+        startHints();
     }
 
     /**
@@ -49,10 +61,11 @@ public class LunarLandingModel {
      * @param fileName: the file name to load from
      * @throws FileNotFoundException
      */
-    public void load(String fileName) throws FileNotFoundException {
+    public synchronized void load(String fileName) throws FileNotFoundException {
         this.file = fileName;
         LunarLandingConfig lunar = new LunarLandingConfig(fileName);
         this.currentConfig = lunar;
+        startHints();
         announce("File loaded");
     }
 
@@ -60,8 +73,9 @@ public class LunarLandingModel {
      * reloads the current configuration
      * @throws FileNotFoundException
      */
-    public void reload() throws FileNotFoundException {
+    public synchronized void reload() throws FileNotFoundException {
         this.currentConfig = loadLunarLander(this.file);
+        startHints();
         announce("File reloaded");
     }
 
@@ -79,7 +93,7 @@ public class LunarLandingModel {
      * takes in a direction and moves a figure on the board toward that direction
      * @param direction: the direction to move toward
      */
-    public void go(String direction) {
+    public synchronized void go(String direction) {
         String name = "";
         // iterate through the list of figures on the board
         for (Figures figure : this.currentConfig.getFigures()) {
@@ -93,7 +107,8 @@ public class LunarLandingModel {
         Figures fig = new Figures(name, this.row, this.col);
 
         // move the figure to that direction
-        this.currentConfig.moveFigure(fig, direction);
+        this.currentConfig = this.currentConfig.withMove(fig, direction);
+        hints.update(this.currentConfig.withRobotSymmetry(true));
         if (currentConfig.isSolution()) {
             announce("WINNER");
         }
@@ -103,14 +118,26 @@ public class LunarLandingModel {
     }
 
     /**
-     * shows the next move to reach the goal
+     * shows the next move to reach the goal. the path is taken from the hint service, if it is still being worked
+     * out the hint is given as soon as it is ready
      */
-    public void hint() {
-        Configuration lunar = new LunarLandingConfig(this.currentConfig);
-        Solver lunarSolver = new Solver(lunar);
-        List<Configuration> path = lunarSolver.solver();
-        if (path.size() > 0) {
-            this.currentConfig = (LunarLandingConfig) path.get(1);
+    public synchronized void hint() {
+        // the robots are all alike, so the path is worked out with robot symmetry on and visits fewer configs
+        LunarLandingConfig lunar = this.currentConfig.withRobotSymmetry(true);
+        SolveResult result = hints.resultFor(lunar);
+        if (result == null) {
+            hintWanted = true;
+            hints.update(lunar);
+            announce ("WORKING ON A HINT");
+            return;
+        }
+
+        hintWanted = false;
+        List<Configuration> path = result.getPath();
+        if (path.size() > 1) {
+            // the path can have the robots swapped around from the board, so make its move with the board's figures
+            this.currentConfig = this.currentConfig.withMoveOf((LunarLandingConfig) path.get(0),
+                    (LunarLandingConfig) path.get(1));
             if (currentConfig.isSolution()) {
                 announce ("WINNER");
             }
@@ -118,11 +145,43 @@ public class LunarLandingModel {
                 announce ("");
             }
         }
+        else if (path.size() == 1) {
+            announce ("WINNER");
+        }
         else {
             announce ("CANNOT BE SOLVED");
         }
     }
 
+    /**
+     * called by the hint service when a path has been worked out, gives the hint the user asked for
+     */
+    private synchronized void hintReady() {
+        if (hintWanted) {
+            hint();
+        }
+    }
+
+    /**
+     * starts working out the path for a newly loaded board, unless it is already in the solution cache
+     */
+    private void startHints() {
+        hintWanted = false;
+        SolveResult known = SolutionCache.getDefault().get(SolutionCache.keyForFile("lunarlanding", this.file),
+                this.currentConfig);
+        if (known != null) {
+            // the cached path was found without robot symmetry, so turn it on to match what the hints look up.
+            // hint makes each step with the board's own figures, so the names on the path do not matter
+            List<Configuration> path = new ArrayList<>();
+            for (Configuration step : known.getPath()) {
+                path.add(((LunarLandingConfig) step).withRobotSymmetry(true));
+            }
+            known = new SolveResult(known.getStatus(), path, known.getDepth(), known.getTotalConfigs(),
+                    known.getUniqueConfigs());
+        }
+        hints.reset(this.currentConfig.withRobotSymmetry(true), known);
+    }
+
     /**
      * for the PTUI to get the string representation of the current config
      * @return the current config
@@ -2,6 +2,8 @@ package puzzles.tipover;
 
 import puzzles.tipover.model.TipOverConfig;
 import solver.Configuration;
+import solver.SolutionCache;
+import solver.SolveLimits;
 import solver.Solver;
 import util.Coordinates;
 
@@ -22,41 +24,11 @@ public class TipOver {
             System.out.println("Usage: java tipover file name ...");
         } else {
             try {
-                // Set the input file and scanner
-                File inputFile = new File(args[0]);
-                Scanner scanner = new Scanner(inputFile);
-
-                // Scan in the first line of data to represent the current grid state
-                int numOfRows = scanner.nextInt();
-                int numOfCols = scanner.nextInt();
-                int tipperRow = scanner.nextInt();
-                int tipperCol = scanner.nextInt();
-                int goalRow = scanner.nextInt();
-                int goalCol = scanner.nextInt();
-
-                // Set the coordinates of the tipper and goal
-                Coordinates tipperPosition = new Coordinates(tipperRow, tipperCol);
-                Coordinates goalPosition = new Coordinates(goalRow, goalCol);
-
-                // Create the current array for the game board
-                int[][] gameBoardArray = new int[numOfRows][numOfCols];
-                int row = 0;
-                int col = 0;
-                // Set the integers for the board by scanning in the next integer from the input file until there are
-                //      none left
-                while (scanner.hasNextInt()) {
-                    gameBoardArray[row][col] = scanner.nextInt();
-                    col++;
-                    if (col >= numOfCols) {
-                        col = 0;
-                        row++;
-                    }
-                }
-
-                // Create a new instance of the TipOver class and call the solver on it to find the solution by BFS
-                Configuration tipOver = new TipOverConfig(numOfRows, numOfCols, gameBoardArray, tipperPosition, goalPosition);
-                Solver solve = new Solver(tipOver);
-                List<Configuration> solved = solve.solver();
+                // Load the puzzle and find the solution by BFS, unless it is already cached
+                Configuration tipOver = loadConfig(args[0]);
+                List<Configuration> solved = SolutionCache.getDefault().getOrSolve(
+                        SolutionCache.keyForFile("tipover", args[0]), tipOver,
+                        start -> new Solver(start).solve(SolveLimits.NONE)).getPath();
 
                 // Print if the solution was found or not. If it was found, print it by step
                 if (solved.isEmpty()) {
@@ -72,4 +44,46 @@ public class TipOver {
             }
         }
     }
+
+    /**
+     * Read a puzzle file into a new instance of the TipOverConfig
+     *
+     * @param filename - the puzzle file
+     * @return - the config at the start of the puzzle
+     */
+    public static TipOverConfig loadConfig(String filename) throws FileNotFoundException {
+        // Set the input file and scanner
+        File inputFile = new File(filename);
+        Scanner scanner = new Scanner(inputFile);
+
+        // Scan in the first line of data to represent the current grid state
+        int numOfRows = scanner.nextInt();
+        int numOfCols = scanner.nextInt();
+        int tipperRow = scanner.nextInt();
+        int tipperCol = scanner.nextInt();
+        int goalRow = scanner.nextInt();
+        int goalCol = scanner.nextInt();
+
+        // Set the coordinates of the tipper and goal
+        Coordinates tipperPosition = new Coordinates(tipperRow, tipperCol);
+        Coordinates goalPosition = new Coordinates(goalRow, goalCol);
+
+        // Create the current array for the game board
+        int[][] gameBoardArray = new int[numOfRows][numOfCols];
+        int row = 0;
+        int col = 0;
+        // Set the integers for the board by scanning in the next integer from the input file until there are
+        //      none left
+        while (scanner.hasNextInt()) {
+            gameBoardArray[row][col] = scanner.nextInt();
+            col++;
+            if (col >= numOfCols) {
+                col = 0;
+                row++;
+            }
+        }
+        scanner.close();
+
+        return new TipOverConfig(numOfRows, numOfCols, gameBoardArray, tipperPosition, goalPosition);
+    }
 }
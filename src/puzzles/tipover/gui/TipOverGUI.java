@@ -1,6 +1,7 @@
 package puzzles.tipover.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Pos;
@@ -185,6 +186,11 @@ public class TipOverGUI extends Application
 
     @Override
     public void update( TipOverModel tipOverModel, Object arg ) {
+        // Hints that were still being worked out are announced from the hint thread, so move over to the GUI thread
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> update(tipOverModel, arg));
+            return;
+        }
         // Create a new gridPane of the model and pass it into the mainBorderPane
         gridPane = makeGridPane();
         mainBorderPane.setCenter(gridPane);
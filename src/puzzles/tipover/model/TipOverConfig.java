@@ -1,32 +1,38 @@
 package puzzles.tipover.model;
 
 import solver.Configuration;
+import solver.EncodableConfiguration;
 import util.Coordinates;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * This class will make a new TipOverConfig and will create the list of neighbors that will be passed into the solver
  * This class will also make a hashcode, an equals method, and a toString method to print out the grid
  * This class also determines if the current grid is the solution by seeing if the tipper is on the goal crate
+ * The grid is kept as one flat byte array (row * columns + column) with a Zobrist hash that is updated for only the
+ *      cells a move changes, so hashing a config is free and comparing two configs is one array comparison.
+ * The cells of a config are never changed once other configs can see them: tipping a tower first gives the config
+ *      its own copy of the cells, so copies can share the grid, and stepping onto a tower, which only moves the
+ *      tipper, never copies it
  * @author Giovanni Coppola
  * November 2021
  */
-public class TipOverConfig implements Configuration {
+public class TipOverConfig implements EncodableConfiguration {
     /**
      * Private state variables for the tip over puzzle
-     * This includes the number of rows, the number of columns, the location of the tipper, the location of the goal
-     *      crate, and the current grid state. All of this data will be filled in the constructor and/or copy
-     *      constructor
+     * This includes the context shared by every config of the same puzzle (the size of the grid, the goal crate and
+     *      the hash keys), the cell the tipper is on, the height of every cell, and the hash of the current state
      */
-    private int numberOfRows;
-    private int numberOfColumns;
-    private Coordinates tipper;
-    private Coordinates goalCrate;
-    private int[][] gameBoard;
+    private final TipOverContext context;
+    private int tipper;
+    private byte[] cells;
+    private long hash;
 
     /**
      * Constructor for TipOver
@@ -38,47 +44,149 @@ public class TipOverConfig implements Configuration {
      */
     public TipOverConfig(int numberOfRows, int numberOfColumns, int[][] gameBoard, Coordinates tipper,
                    Coordinates goalCrate) {
-        this.numberOfRows = numberOfRows;
-        this.numberOfColumns = numberOfColumns;
-        this.gameBoard = gameBoard;
-        this.tipper = tipper;
-        this.goalCrate = goalCrate;
+        int tallest = 0;
+        for (int[] row : gameBoard) {
+            for (int height : row) {
+                tallest = Math.max(tallest, height);
+            }
+        }
+        this.context = new TipOverContext(numberOfRows, numberOfColumns, goalCrate, tallest);
+        this.cells = new byte[numberOfRows * numberOfColumns];
+        for (int row = 0; row < numberOfRows; row++) {
+            for (int col = 0; col < numberOfColumns; col++) {
+                this.cells[row * numberOfColumns + col] = (byte) gameBoard[row][col];
+            }
+        }
+        this.tipper = tipper.row() * numberOfColumns + tipper.col();
+        this.hash = computeHash();
     }
 
     /**
-     * Copy constructor for the TipOver class
+     * Copy constructor for the TipOver class. The copy shares the cells of the other config, which neither of them
+     *      changes (see copyCells)
      * @param other - an instance of tipover that will be copied from
      */
     public TipOverConfig(TipOverConfig other) {
-        this.numberOfRows = other.numberOfRows;
-        this.numberOfColumns = other.numberOfColumns;
-        this.gameBoard = new int[numberOfRows][];
-        for (int index = 0; index < other.gameBoard.length; index++) {
-            this.gameBoard[index] = Arrays.copyOf(other.gameBoard[index], other.gameBoard[index].length);
-        }
+        this.context = other.context;
+        this.cells = other.cells;
         this.tipper = other.tipper;
-        this.goalCrate = other.goalCrate;
+        this.hash = other.hash;
+    }
+
+    /**
+     * Constructor used when decoding, where the cells were already made for this config
+     * @param other - an instance of tipover from the same puzzle
+     * @param cells - the decoded grid state, which is not copied
+     * @param tipper - the decoded cell of the tipper
+     */
+    private TipOverConfig(TipOverConfig other, byte[] cells, int tipper) {
+        this.context = other.context;
+        this.cells = cells;
+        this.tipper = tipper;
+        this.hash = computeHash();
     }
 
-    // Accessor methods for the config that will be used by the model
+    /**
+     * Accessor methods for the config that will be used by the model. The grid is made from the flat cells each
+     *      time, so changing it does not change the config
+     */
     public int[][] getGameBoard() {
+        int[][] gameBoard = new int[getNumberOfRows()][getNumberOfColumns()];
+        for (int row = 0; row < gameBoard.length; row++) {
+            for (int col = 0; col < gameBoard[row].length; col++) {
+                gameBoard[row][col] = this.cells[row * getNumberOfColumns() + col];
+            }
+        }
         return gameBoard;
     }
 
     public int getNumberOfRows() {
-        return numberOfRows;
+        return context.getNumberOfRows();
     }
 
     public int getNumberOfColumns() {
-        return numberOfColumns;
+        return context.getNumberOfColumns();
     }
 
     public Coordinates getTipper() {
-        return tipper;
+        return new Coordinates(tipperRow(), tipperCol());
     }
 
     public Coordinates getGoalCrate() {
-        return goalCrate;
+        return context.getGoalCrate();
+    }
+
+    private int tipperRow() {
+        return this.tipper / getNumberOfColumns();
+    }
+
+    private int tipperCol() {
+        return this.tipper % getNumberOfColumns();
+    }
+
+    /**
+     * Get the height of a cell, throwing like the two dimensional grid did if the cell is off the board
+     *
+     * @param row - the row of the cell
+     * @param col - the column of the cell
+     * @return - the height of the cell
+     */
+    private int height(int row, int col) {
+        return this.cells[cellIndex(row, col)];
+    }
+
+    /**
+     * Give this config its own copy of the cells before a tower is tipped, since the old cells might be shared with
+     *      other configs
+     */
+    private void copyCells() {
+        this.cells = this.cells.clone();
+    }
+
+    /**
+     * Set the height of a cell, xoring the old height out of the hash and the new one in. The cells must have been
+     *      copied first (see copyCells)
+     *
+     * @param row - the row of the cell
+     * @param col - the column of the cell
+     * @param height - the new height of the cell
+     */
+    private void setHeight(int row, int col, int height) {
+        int cell = cellIndex(row, col);
+        this.hash ^= context.heightKey(cell, this.cells[cell]) ^ context.heightKey(cell, height);
+        this.cells[cell] = (byte) height;
+    }
+
+    /**
+     * Move the tipper to a cell, xoring the old cell out of the hash and the new one in
+     *
+     * @param row - the row of the cell
+     * @param col - the column of the cell
+     */
+    private void setTipper(int row, int col) {
+        int cell = cellIndex(row, col);
+        this.hash ^= context.tipperKey(this.tipper) ^ context.tipperKey(cell);
+        this.tipper = cell;
+    }
+
+    private int cellIndex(int row, int col) {
+        if (row < 0 || row >= getNumberOfRows() || col < 0 || col >= getNumberOfColumns()) {
+            throw new ArrayIndexOutOfBoundsException("Cell " + row + ", " + col + " is off the board");
+        }
+        return row * getNumberOfColumns() + col;
+    }
+
+    /**
+     * Work out the hash of the config from scratch
+     *
+     * @return - the xor of the keys of every cell and the tipper
+     */
+    private long computeHash() {
+        long result = context.tipperKey(this.tipper);
+        for (int cell = 0; cell < this.cells.length; cell++) {
+            result ^= context.heightKey(cell, this.cells[cell]);
+        }
+        return result;
     }
 
     /**
@@ -92,33 +200,34 @@ public class TipOverConfig implements Configuration {
         int currentTowerHeight = 0;
 
         if (direction.equals("north")) {
-            if (this.tipper.row() > 0) {
-                if (this.gameBoard[this.tipper.row()][this.tipper.col()] != 0) {
-                    if (this.gameBoard[this.tipper.row() - 1][this.tipper.col()] != 0) {
+            if (tipperRow() > 0) {
+                if (height(tipperRow(), tipperCol()) != 0) {
+                    if (height(tipperRow() - 1, tipperCol()) != 0) {
                         // If the user is on a tower and to the north of them is a tower, move them onto it
-                        this.tipper = new Coordinates(this.tipper.row() - 1, this.tipper.col());
+                        setTipper(tipperRow() - 1, tipperCol());
                         return "";
                     } else {
-                        if (this.gameBoard[this.tipper.row()][this.tipper.col()] > 1) {
+                        if (height(tipperRow(), tipperCol()) > 1) {
                             // Get the neighbor of the tipper in the north direction
-                            if (this.tipper.row() - 1 >= 0 && this.gameBoard[this.tipper.row() - 1][this.tipper.col()] == 0) {
-                                row = this.tipper.row();
-                                col = this.tipper.col();
-                                currentTowerHeight = this.gameBoard[this.tipper.row()][this.tipper.col()];
+                            if (tipperRow() - 1 >= 0 && height(tipperRow() - 1, tipperCol()) == 0) {
+                                row = tipperRow();
+                                col = tipperCol();
+                                currentTowerHeight = height(tipperRow(), tipperCol());
                                 // If the north is valid, then tip over the tower by moving through and setting each index to a 1 (crate)
                                 if (isValidPath(1) && row - currentTowerHeight >= 0) {
                                     // Set the original location of the tower to a 0
-                                    this.gameBoard[row][col] = 0;
+                                    copyCells();
+                                    setHeight(row, col, 0);
                                     row -= 1;
-                                    this.tipper = new Coordinates(row, col);
+                                    setTipper(row, col);
                                     for (int index = 0; index < currentTowerHeight; index++) {
-                                        this.gameBoard[row][col] = 1;
+                                        setHeight(row, col, 1);
                                         row -= 1;
                                     }
                                 }
                             }
                             return "A tower has been tipped over.";
-                        } else if (this.gameBoard[this.tipper.row()][this.tipper.col()] == 1) {
+                        } else if (height(tipperRow(), tipperCol()) == 1) {
                             // Non-proper crate message
                             return "No crate or tower there.";
                         }
@@ -131,33 +240,34 @@ public class TipOverConfig implements Configuration {
         }
 
         if (direction.equals("south")) {
-            if (this.tipper.row() < this.numberOfRows) {
-                if (this.gameBoard[this.tipper.row()][this.tipper.col()] != 0) {
-                    if (this.gameBoard[this.tipper.row() + 1][this.tipper.col()] != 0) {
+            if (tipperRow() < getNumberOfRows()) {
+                if (height(tipperRow(), tipperCol()) != 0) {
+                    if (height(tipperRow() + 1, tipperCol()) != 0) {
                         // If the user is on a tower and to the south of them is a tower, move them onto it
-                        this.tipper = new Coordinates(this.tipper.row() + 1, this.tipper.col());
+                        setTipper(tipperRow() + 1, tipperCol());
                         return "";
                     } else {
-                        if (this.gameBoard[this.tipper.row()][this.tipper.col()] > 1) {
+                        if (height(tipperRow(), tipperCol()) > 1) {
                             // Get the neighbor of the tipper in the north direction
-                            if (this.tipper.row() + 1 <= this.numberOfRows && this.gameBoard[this.tipper.row() + 1][this.tipper.col()] == 0) {
-                                row = this.tipper.row();
-                                col = this.tipper.col();
-                                currentTowerHeight = this.gameBoard[this.tipper.row()][this.tipper.col()];
+                            if (tipperRow() + 1 <= getNumberOfRows() && height(tipperRow() + 1, tipperCol()) == 0) {
+                                row = tipperRow();
+                                col = tipperCol();
+                                currentTowerHeight = height(tipperRow(), tipperCol());
                                 // If the south is valid, then tip over the tower by moving through and setting each index to a 1 (crate)
-                                if (isValidPath(2) && row + currentTowerHeight <= this.numberOfRows) {
+                                if (isValidPath(2) && row + currentTowerHeight <= getNumberOfRows()) {
                                     // Set the original location of the tower to a 0
-                                    this.gameBoard[row][col] = 0;
+                                    copyCells();
+                                    setHeight(row, col, 0);
                                     row += 1;
-                                    this.tipper = new Coordinates(row, col);
+                                    setTipper(row, col);
                                     for (int index = 0; index < currentTowerHeight; index++) {
-                                        this.gameBoard[row][col] = 1;
+                                        setHeight(row, col, 1);
                                         row += 1;
                                     }
                                 }
                             }
                             return "A tower has been tipped over.";
-                        } else if (this.gameBoard[this.tipper.row()][this.tipper.col()] == 1) {
+                        } else if (height(tipperRow(), tipperCol()) == 1) {
                             // Non-proper crate message
                             return "No crate or tower there.";
                         }
@@ -170,33 +280,34 @@ public class TipOverConfig implements Configuration {
         }
 
         if (direction.equals("east")) {
-            if (this.tipper.col() < this.numberOfColumns) {
-                if (this.gameBoard[this.tipper.row()][this.tipper.col()] != 0) {
-                    if (this.gameBoard[this.tipper.row()][this.tipper.col() + 1] != 0) {
+            if (tipperCol() < getNumberOfColumns()) {
+                if (height(tipperRow(), tipperCol()) != 0) {
+                    if (height(tipperRow(), tipperCol() + 1) != 0) {
                         // If the user is on a tower and to the east of them is a tower, move them onto it
-                        this.tipper = new Coordinates(this.tipper.row(), this.tipper.col() + 1);
+                        setTipper(tipperRow(), tipperCol() + 1);
                         return "";
                     } else {
-                        if (this.gameBoard[this.tipper.row()][this.tipper.col()] > 1) {
+                        if (height(tipperRow(), tipperCol()) > 1) {
                             // Get the neighbor of the tipper in the north direction
-                            if (this.tipper.col() <= this.numberOfColumns && this.gameBoard[this.tipper.row()][this.tipper.col() + 1] == 0) {
-                                row = this.tipper.row();
-                                col = this.tipper.col();
-                                currentTowerHeight = this.gameBoard[this.tipper.row()][this.tipper.col()];
+                            if (tipperCol() <= getNumberOfColumns() && height(tipperRow(), tipperCol() + 1) == 0) {
+                                row = tipperRow();
+                                col = tipperCol();
+                                currentTowerHeight = height(tipperRow(), tipperCol());
                                 // If the north is valid, then tip over the tower by moving through and setting each index to a 1 (crate)
-                                if (isValidPath(3) && col + currentTowerHeight <= this.numberOfColumns) {
+                                if (isValidPath(3) && col + currentTowerHeight <= getNumberOfColumns()) {
                                     // Set the original location of the tower to a 0
-                                    this.gameBoard[row][col] = 0;
+                                    copyCells();
+                                    setHeight(row, col, 0);
                                     col += 1;
-                                    this.tipper = new Coordinates(row, col);
+                                    setTipper(row, col);
                                     for (int index = 0; index < currentTowerHeight; index++) {
-                                        this.gameBoard[row][col] = 1;
+                                        setHeight(row, col, 1);
                                         col += 1;
                                     }
                                 }
                             }
                             return "A tower has been tipped over.";
-                        } else if (this.gameBoard[this.tipper.row()][this.tipper.col()] == 1) {
+                        } else if (height(tipperRow(), tipperCol()) == 1) {
                             // Non-proper crate message
                             return "No crate or tower there.";
                         }
@@ -209,33 +320,34 @@ public class TipOverConfig implements Configuration {
         }
 
         if (direction.equals("west")) {
-            if (this.tipper.row() < this.numberOfRows) {
-                if (this.gameBoard[this.tipper.row()][this.tipper.col()] != 0) {
-                    if (this.gameBoard[this.tipper.row()][this.tipper.col() - 1] != 0) {
+            if (tipperRow() < getNumberOfRows()) {
+                if (height(tipperRow(), tipperCol()) != 0) {
+                    if (height(tipperRow(), tipperCol() - 1) != 0) {
                         // If the user is on a tower and to the west of them is a tower, move them onto it
-                        this.tipper = new Coordinates(this.tipper.row(), this.tipper.col() - 1);
+                        setTipper(tipperRow(), tipperCol() - 1);
                         return "";
                     } else {
-                        if (this.gameBoard[this.tipper.row()][this.tipper.col()] > 1) {
+                        if (height(tipperRow(), tipperCol()) > 1) {
                             // Get the neighbor of the tipper in the north direction
-                            if (this.tipper.col() - 1 <= this.numberOfRows && this.gameBoard[this.tipper.row()][this.tipper.col() - 1] == 0) {
-                                row = this.tipper.row();
-                                col = this.tipper.col();
-                                currentTowerHeight = this.gameBoard[this.tipper.row()][this.tipper.col()];
+                            if (tipperCol() - 1 <= getNumberOfRows() && height(tipperRow(), tipperCol() - 1) == 0) {
+                                row = tipperRow();
+                                col = tipperCol();
+                                currentTowerHeight = height(tipperRow(), tipperCol());
                                 // If the south is valid, then tip over the tower by moving through and setting each index to a 1 (crate)
                                 if (isValidPath(4) && col - currentTowerHeight >= 0) {
                                     // Set the original location of the tower to a 0
-                                    this.gameBoard[row][col] = 0;
+                                    copyCells();
+                                    setHeight(row, col, 0);
                                     col -= 1;
-                                    this.tipper = new Coordinates(row, col);
+                                    setTipper(row, col);
                                     for (int index = 0; index < currentTowerHeight; index++) {
-                                        this.gameBoard[row][col] = 1;
+                                        setHeight(row, col, 1);
                                         col -= 1;
                                     }
                                 }
                             }
                             return "A tower has been tipped over.";
-                        } else if (this.gameBoard[this.tipper.row()][this.tipper.col()] == 1) {
+                        } else if (height(tipperRow(), tipperCol()) == 1) {
                             // Non-proper crate message
                             return "No crate or tower there.";
                         }
@@ -266,9 +378,9 @@ public class TipOverConfig implements Configuration {
             // North
             case 1 -> {
                 isPathClear = true;
-                row = this.tipper.row();
-                col = this.tipper.col();
-                currentTowerHeight = this.gameBoard[this.tipper.row()][this.tipper.col()];
+                row = tipperRow();
+                col = tipperCol();
+                currentTowerHeight = height(tipperRow(), tipperCol());
 
                 // Check if the path is clear by first checking it is within the bounds of the board
                 if (row - currentTowerHeight >= 0) {
@@ -276,7 +388,7 @@ public class TipOverConfig implements Configuration {
                         row -= 1;
                         // If it is in bounds, then loop through and make sure each index is a 0
                         // Make sure the path is false if a non-zero integer is found (a crate is in the way)
-                        if (this.gameBoard[row][col] != 0) {
+                        if (height(row, col) != 0) {
                             isPathClear = false;
                         }
                     }
@@ -285,17 +397,17 @@ public class TipOverConfig implements Configuration {
             // South
             case 2 -> {
                 isPathClear = true;
-                row = this.tipper.row();
-                col = this.tipper.col();
-                currentTowerHeight = this.gameBoard[this.tipper.row()][this.tipper.col()];
+                row = tipperRow();
+                col = tipperCol();
+                currentTowerHeight = height(tipperRow(), tipperCol());
 
                 // Check if the path is clear by first checking it is within the bounds of the board
-                if (row + currentTowerHeight < this.numberOfRows) {
+                if (row + currentTowerHeight < getNumberOfRows()) {
                     for (int index = 0; index < currentTowerHeight; index++) {
                         row += 1;
                         // If it is in bounds, then loop through and make sure each index is a 0
                         // Make sure the path is false if a non-zero integer is found (a crate is in the way)
-                        if (this.gameBoard[row][col] != 0) {
+                        if (height(row, col) != 0) {
                             isPathClear = false;
                         }
                     }
@@ -304,17 +416,17 @@ public class TipOverConfig implements Configuration {
             // East
             case 3 -> {
                 isPathClear = true;
-                row = this.tipper.row();
-                col = this.tipper.col();
-                currentTowerHeight = this.gameBoard[this.tipper.row()][this.tipper.col()];
+                row = tipperRow();
+                col = tipperCol();
+                currentTowerHeight = height(tipperRow(), tipperCol());
 
                 // Check if the path is clear by first checking it is within the bounds of the board
-                if (col + currentTowerHeight < this.numberOfColumns) {
+                if (col + currentTowerHeight < getNumberOfColumns()) {
                     for (int index = 0; index < currentTowerHeight; index++) {
                         // If it is in bounds, then loop through and make sure each index is a 0
                         // Make sure the path is false if a non-zero integer is found (a crate is in the way)
                         col += 1;
-                        if (this.gameBoard[row][col] != 0) {
+                        if (height(row, col) != 0) {
                             isPathClear = false;
                         }
                     }
@@ -323,9 +435,9 @@ public class TipOverConfig implements Configuration {
             // West
             case 4 -> {
                 isPathClear = true;
-                row = this.tipper.row();
-                col = this.tipper.col();
-                currentTowerHeight = this.gameBoard[this.tipper.row()][this.tipper.col()];
+                row = tipperRow();
+                col = tipperCol();
+                currentTowerHeight = height(tipperRow(), tipperCol());
 
                 // Check if the path is clear by first checking it is within the bounds of the board
                 if (col - currentTowerHeight >= 0) {
@@ -333,7 +445,7 @@ public class TipOverConfig implements Configuration {
                         // If it is in bounds, then loop through and make sure each index is a 0
                         // Make sure the path is false if a non-zero integer is found (a crate is in the way)
                         col -= 1;
-                        if (this.gameBoard[row][col] != 0) {
+                        if (height(row, col) != 0) {
                             isPathClear = false;
                         }
                     }
@@ -346,8 +458,19 @@ public class TipOverConfig implements Configuration {
 
     @Override
     public boolean isSolution() {
-        return this.tipper.row() == this.goalCrate.row() &&
-                this.tipper.col() == this.goalCrate.col();
+        return tipperRow() == getGoalCrate().row() &&
+                tipperCol() == getGoalCrate().col();
+    }
+
+    /**
+     * Get the Manhattan distance from the tipper to the goal crate. Both stepping onto a tower and tipping one over
+     *      move the tipper exactly one space, so this never overestimates the number of moves left
+     *
+     * @return - the distance from the tipper to the goal crate
+     */
+    @Override
+    public int getHeuristic() {
+        return Math.abs(tipperRow() - getGoalCrate().row()) + Math.abs(tipperCol() - getGoalCrate().col());
     }
 
     /**
@@ -358,220 +481,165 @@ public class TipOverConfig implements Configuration {
     @Override
     public Collection<Configuration> getNeighbors() {
         List<Configuration> neighbors = new LinkedList<>();
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
 
-        // Variables that will be used for checking if the path is clear, storing the row and col, and the tower height
-        boolean isPathClear;
-        int row;
-        int col;
-        int currentTowerHeight;
+    /**
+     * Method to hand each neighbor of the tipper to the visitor as soon as it is made, in the order north, south,
+     *      west and then east. A direction the tipper can not move in still gives a copy of the current config
+     *
+     * @param visitor - the consumer that is given each neighbor
+     */
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> visitor) {
+        visitor.accept(neighbor(-1, 0));
+        visitor.accept(neighbor(1, 0));
+        visitor.accept(neighbor(0, -1));
+        visitor.accept(neighbor(0, 1));
+    }
 
-        // Create a copy of the current config
+    /**
+     * Make the neighbor in one direction. If the next cell is a crate or tower the tipper steps onto it, if it is
+     *      empty and the tipper is on a tower that has room to fall (every cell it lands on is empty and on the board)
+     *      the tower is tipped over, otherwise nothing changes. Only tipping a tower copies the cells
+     *
+     * @param rowStep - -1 for north, 1 for south, 0 for east or west
+     * @param colStep - -1 for west, 1 for east, 0 for north or south
+     * @return - the neighbor in that direction
+     */
+    private TipOverConfig neighbor(int rowStep, int colStep) {
         TipOverConfig tipOverConfig = new TipOverConfig(this);
-
-        // Get the neighbor of the tipper in the north direction
-        if (tipOverConfig.tipper.row()-1 >= 0 && tipOverConfig.gameBoard[tipOverConfig.tipper.row() - 1][tipOverConfig.tipper.col()] == 0) {
-            // If the current game board is a tower with height greater than one (not a crate)
-            if (tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()] > 1){
-                isPathClear = true;
-                row = tipOverConfig.tipper.row();
-                col = tipOverConfig.tipper.col();
-                currentTowerHeight = tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()];
-
-                // Check if the path is clear by first checking it is within the bounds of the board
-                if (row-currentTowerHeight >= 0) {
-                    for (int index = 0; index < currentTowerHeight; index++) {
-                        row -= 1;
-                        // If it is in bounds, then loop through and make sure each index is a 0
-                        // Make sure the path is false if a non-zero integer is found (a crate is in the way)
-                        if (tipOverConfig.gameBoard[row][col] != 0) {
-                            isPathClear = false;
-                        }
-                    }
-                }
-
-                row = tipOverConfig.tipper.row();
-                col = tipOverConfig.tipper.col();
-                // If the north is valid, then tip over the tower by moving through and setting each index to a 1 (crate)
-                if (isPathClear && row-currentTowerHeight >= 0) {
-                    // Set the original location of the tower to a 0
-                    tipOverConfig.gameBoard[row][col] = 0;
-                    row -= 1;
-                    tipOverConfig.tipper = new Coordinates(row, col);
-                    for (int index = 0; index < currentTowerHeight; index++) {
-                        tipOverConfig.gameBoard[row][col] = 1;
-                        row -= 1;
-                    }
-                }
-            }
-        } else if (tipOverConfig.tipper.row()-1 >= 0 && tipOverConfig.gameBoard[tipOverConfig.tipper.row() - 1][tipOverConfig.tipper.col()] != 0) {
-            // Otherwise, if it is not zero, then move the user to the north if it is valid
-            tipOverConfig.tipper = new Coordinates(tipOverConfig.tipper.row() - 1, tipOverConfig.tipper.col());
+        int rows = getNumberOfRows();
+        int columns = getNumberOfColumns();
+        int row = tipperRow();
+        int col = tipperCol();
+        int nextRow = row + rowStep;
+        int nextCol = col + colStep;
+        if (nextRow < 0 || nextRow >= rows || nextCol < 0 || nextCol >= columns) {
+            return tipOverConfig;
         }
 
-        // Add the current config to the neighbors list
-        neighbors.add(new TipOverConfig(tipOverConfig));
-
-        tipOverConfig = new TipOverConfig(this);
-
-        // Get the neighbor of the tipper in the south direction
-        if (tipOverConfig.tipper.row()+1 < tipOverConfig.numberOfRows && tipOverConfig.gameBoard[tipOverConfig.tipper.row()+1][tipOverConfig.tipper.col()] == 0) {
-            // If the current game board is a tower with height greater than one (not a crate)
-            if (tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()] > 1){
-                isPathClear = true;
-                row = tipOverConfig.tipper.row();
-                col = tipOverConfig.tipper.col();
-                currentTowerHeight = tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()];
-
-                // Check if the path is clear by first checking it is within the bounds of the board
-                if (row+currentTowerHeight < tipOverConfig.numberOfRows) {
-                    for (int index = 0; index < currentTowerHeight; index++) {
-                        row += 1;
-                        // If it is in bounds, then loop through and make sure each index is a 0
-                        // Make sure the path is false if a non-zero integer is found (a crate is in the way)
-                        if (tipOverConfig.gameBoard[row][col] != 0) {
-                            isPathClear = false;
-                        }
-                    }
+        if (this.cells[nextRow * columns + nextCol] != 0) {
+            // Step onto the crate or tower next to the tipper
+            tipOverConfig.setTipper(nextRow, nextCol);
+        } else {
+            int currentTowerHeight = this.cells[this.tipper];
+            int endRow = row + rowStep * currentTowerHeight;
+            int endCol = col + colStep * currentTowerHeight;
+            // Only a tower (not a crate) can be tipped, and all of it has to land on empty cells of the board
+            if (currentTowerHeight > 1 && endRow >= 0 && endRow < rows && endCol >= 0 && endCol < columns) {
+                boolean isPathClear = true;
+                for (int index = 1; index <= currentTowerHeight && isPathClear; index++) {
+                    isPathClear = this.cells[(row + rowStep * index) * columns + col + colStep * index] == 0;
                 }
-
-                row = tipOverConfig.tipper.row();
-                col = tipOverConfig.tipper.col();
-                // If the north is valid, then tip over the tower by moving through and setting each index to a 1 (crate)
-                if (isPathClear && row+currentTowerHeight < tipOverConfig.numberOfRows) {
-                    // Set the original location of the tower to a 0
-                    tipOverConfig.gameBoard[row][col] = 0;
-                    row += 1;
-                    tipOverConfig.tipper = new Coordinates(row, col);
-                    for (int index = 0; index < currentTowerHeight; index++) {
-                        tipOverConfig.gameBoard[row][col] = 1;
-                        row += 1;
+                if (isPathClear) {
+                    // Set the original location of the tower to a 0 and every cell it falls on to a 1 (crate)
+                    tipOverConfig.copyCells();
+                    tipOverConfig.setHeight(row, col, 0);
+                    for (int index = 1; index <= currentTowerHeight; index++) {
+                        tipOverConfig.setHeight(row + rowStep * index, col + colStep * index, 1);
                     }
+                    tipOverConfig.setTipper(nextRow, nextCol);
                 }
             }
-        } else if (tipOverConfig.tipper.row()+1 < tipOverConfig.numberOfRows && tipOverConfig.gameBoard[tipOverConfig.tipper.row()+1][tipOverConfig.tipper.col()] != 0) {
-            // Otherwise, if it is not zero, then move the user to the south if it is valid
-            tipOverConfig.tipper = new Coordinates(tipOverConfig.tipper.row() + 1, tipOverConfig.tipper.col());
         }
+        return tipOverConfig;
+    }
 
-        // Add the current config to the neighbors list
-        neighbors.add(new TipOverConfig(tipOverConfig));
-
-        tipOverConfig = new TipOverConfig(this);
+    /**
+     * Encode the config as the tipper row and column (two bytes each) followed by one byte for each cell of the board
+     *
+     * @return - the encoded config
+     */
+    @Override
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Short.BYTES + this.cells.length);
+        buffer.putShort((short) tipperRow());
+        buffer.putShort((short) tipperCol());
+        buffer.put(this.cells);
+        return buffer.array();
+    }
 
-        // Get the neighbor of the tipper in the west direction
-        if (tipOverConfig.tipper.col()-1 >= 0 && tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()-1] == 0) {
-            // If the current game board is a tower with height greater than one (not a crate)
-            if (tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()] > 1) {
-                isPathClear = true;
-                row = tipOverConfig.tipper.row();
-                col = tipOverConfig.tipper.col();
-                currentTowerHeight = tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()];
+    @Override
+    public Configuration decode(byte[] key) {
+        ByteBuffer buffer = ByteBuffer.wrap(key);
+        int decodedTipper = buffer.getShort() * getNumberOfColumns() + buffer.getShort();
+        byte[] decodedCells = new byte[this.cells.length];
+        buffer.get(decodedCells);
+        return new TipOverConfig(this, decodedCells, decodedTipper);
+    }
 
-                // Check if the path is clear by first checking it is within the bounds of the board
-                if (col-currentTowerHeight >= 0) {
-                    for (int index = 0; index < currentTowerHeight; index++) {
-                        // If it is in bounds, then loop through and make sure each index is a 0
-                        // Make sure the path is false if a non-zero integer is found (a crate is in the way)
-                        col -= 1;
-                        if (tipOverConfig.gameBoard[row][col] != 0) {
-                            isPathClear = false;
-                        }
-                    }
-                }
+    /**
+     * The config fits in a long if the tipper position and every cell (using the bits of the tallest tower) fit in
+     *      64 bits, which is true for the smaller boards
+     *
+     * @return - true if the config can be packed into a long
+     */
+    @Override
+    public boolean fitsInLong() {
+        int cellCount = this.cells.length;
+        return (long) cellCount * context.getCellBits() + bitsFor(cellCount - 1) <= Long.SIZE;
+    }
 
-                row = tipOverConfig.tipper.row();
-                col = tipOverConfig.tipper.col();
-                // If the north is valid, then tip over the tower by moving through and setting each index to a 1 (crate)
-                if (isPathClear && col-currentTowerHeight >= 0) {
-                    // Set the original location of the tower to a 0
-                    tipOverConfig.gameBoard[row][col] = 0;
-                    col -= 1;
-                    tipOverConfig.tipper = new Coordinates(row, col);
-                    for (int index = 0; index < currentTowerHeight; index++) {
-                        tipOverConfig.gameBoard[row][col] = 1;
-                        col -= 1;
-                    }
-                }
-            }
-        } else if (tipOverConfig.tipper.col()-1 >= 0 && tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()-1] != 0) {
-            // Otherwise, if it is not zero, then move the user to the west if it is valid
-            tipOverConfig.tipper = new Coordinates(tipOverConfig.tipper.row(), tipOverConfig.tipper.col()-1);
+    @Override
+    public long encodeLong() {
+        long key = this.tipper;
+        int cellBits = context.getCellBits();
+        for (byte height : this.cells) {
+            key = (key << cellBits) | height;
         }
+        return key;
+    }
 
-        // Add the current config to the neighbors list
-        neighbors.add(new TipOverConfig(tipOverConfig));
-
-        tipOverConfig = new TipOverConfig(this);
-
-        // Get the neighbor of the tipper in the east direction
-        if (tipOverConfig.tipper.col()+1 < tipOverConfig.numberOfColumns && tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()+1] == 0) {
-            // If the current game board is a tower with height greater than one (not a crate)
-            if (tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()] > 1) {
-                isPathClear = true;
-                row = tipOverConfig.tipper.row();
-                col = tipOverConfig.tipper.col();
-                currentTowerHeight = tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()];
-
-                // Check if the path is clear by first checking it is within the bounds of the board
-                if (col+currentTowerHeight < tipOverConfig.numberOfColumns) {
-                    for (int index = 0; index < currentTowerHeight; index++) {
-                        // If it is in bounds, then loop through and make sure each index is a 0
-                        // Make sure the path is false if a non-zero integer is found (a crate is in the way)
-                        col += 1;
-                        if (tipOverConfig.gameBoard[row][col] != 0) {
-                            isPathClear = false;
-                        }
-                    }
-                }
-
-                row = tipOverConfig.tipper.row();
-                col = tipOverConfig.tipper.col();
-                // If the north is valid, then tip over the tower by moving through and setting each index to a 1 (crate)
-                if (isPathClear && col+currentTowerHeight < tipOverConfig.numberOfColumns) {
-                    // Set the original location of the tower to a 0
-                    tipOverConfig.gameBoard[row][col] = 0;
-                    col += 1;
-                    tipOverConfig.tipper = new Coordinates(row, col);
-                    for (int index = 0; index < currentTowerHeight; index++) {
-                        tipOverConfig.gameBoard[row][col] = 1;
-                        col += 1;
-                    }
-                }
-            }
-        } else if (tipOverConfig.tipper.col()+1 < tipOverConfig.numberOfColumns && tipOverConfig.gameBoard[tipOverConfig.tipper.row()][tipOverConfig.tipper.col()+1] != 0) {
-            // Otherwise, if it is not zero, then move the user to the east if it is valid
-            tipOverConfig.tipper = new Coordinates(tipOverConfig.tipper.row(), tipOverConfig.tipper.col()+1);
+    @Override
+    public Configuration decodeLong(long key) {
+        // The cells were packed from the top left, so the bottom right cell is in the lowest bits
+        int cellBits = context.getCellBits();
+        byte[] decodedCells = new byte[this.cells.length];
+        long cellMask = (1L << cellBits) - 1;
+        for (int cell = decodedCells.length - 1; cell >= 0; cell--) {
+            decodedCells[cell] = (byte) (key & cellMask);
+            key >>>= cellBits;
         }
+        return new TipOverConfig(this, decodedCells, (int) key);
+    }
 
-        // Add the current config to the neighbors list
-        neighbors.add(new TipOverConfig(tipOverConfig));
-
-        return neighbors;
+    /**
+     * Get the number of bits needed to store any value from 0 up to the given value
+     *
+     * @param value - the largest value that will be stored
+     * @return - the number of bits needed
+     */
+    private static int bitsFor(int value) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(value);
     }
 
     @Override
     public String toString() {
         String message = "";
-        for (int rowNum = 0; rowNum < this.numberOfRows; rowNum++) {
+        int numberOfColumns = getNumberOfColumns();
+        for (int rowNum = 0; rowNum < getNumberOfRows(); rowNum++) {
             if (rowNum == 0) {
                 message += "   ";
-                for (int index = 0; index < this.numberOfColumns; index++) {
+                for (int index = 0; index < numberOfColumns; index++) {
                     message += "  " + index;
                 }
-                message += "\n   " + "_".repeat((this.numberOfColumns)*3) + "\n";
+                message += "\n   " + "_".repeat((numberOfColumns)*3) + "\n";
                 message += "0 |";
             } else {
                 message += rowNum + " |";
             }
-            for (int colNum = 0; colNum < this.numberOfColumns; colNum++) {
-                if (this.gameBoard[rowNum][colNum] == 0) {
+            for (int colNum = 0; colNum < numberOfColumns; colNum++) {
+                int height = this.cells[rowNum * numberOfColumns + colNum];
+                if (height == 0) {
                     message += "  _";
-                } else if (this.tipper.row() == rowNum && this.tipper.col() == colNum) {
-                    message += " *" + this.gameBoard[rowNum][colNum];
-                } else if (this.goalCrate.row() == rowNum && this.goalCrate.col() == colNum) {
-                    message += " !" + this.gameBoard[rowNum][colNum];
+                } else if (tipperRow() == rowNum && tipperCol() == colNum) {
+                    message += " *" + height;
+                } else if (getGoalCrate().row() == rowNum && getGoalCrate().col() == colNum) {
+                    message += " !" + height;
                 } else {
-                    message += "  " + this.gameBoard[rowNum][colNum];
+                    message += "  " + height;
                 }
             }
             message += "\n";
@@ -580,10 +648,14 @@ public class TipOverConfig implements Configuration {
         return message;
     }
 
+    /**
+     * The hash is the Zobrist hash that is kept up to date by every move, so nothing has to be looped over
+     *
+     * @return - the hash of the config
+     */
     @Override
     public int hashCode() {
-        return this.numberOfRows + this.numberOfColumns + this.goalCrate.hashCode() + Arrays.deepHashCode(this.gameBoard)
-                + this.tipper.hashCode();
+        return (int) (this.hash ^ (this.hash >>> 32));
     }
 
     @Override
@@ -591,11 +663,11 @@ public class TipOverConfig implements Configuration {
         boolean result = false;
         if (other instanceof TipOverConfig) {
             TipOverConfig newTipOver = (TipOverConfig) other;
-            result = this.numberOfRows == newTipOver.numberOfRows &&
-                    this.numberOfColumns == newTipOver.numberOfColumns &&
-                    this.goalCrate.equals(newTipOver.goalCrate) &&
-                    this.tipper.equals(newTipOver.tipper) &&
-                    Arrays.deepEquals(this.gameBoard, newTipOver.gameBoard);
+            // Configs with different hashes can not be equal, so most of the time the cells are never compared
+            result = this.hash == newTipOver.hash &&
+                    this.tipper == newTipOver.tipper &&
+                    this.context.sameGrid(newTipOver.context) &&
+                    Arrays.equals(this.cells, newTipOver.cells);
         }
         return result;
     }
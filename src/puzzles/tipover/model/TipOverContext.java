@@ -0,0 +1,118 @@
+package puzzles.tipover.model;
+
+import util.Coordinates;
+
+/**
+ * This class holds everything about a tip over puzzle that stays the same while it is being solved: the size of the
+ *      grid, the goal crate, the number of bits for a cell, and the Zobrist keys used to hash the configurations.
+ * Every configuration reached from the same starting grid shares one context.
+ * The hash of a configuration is the xor of the key for the height of each cell and the key for the cell the tipper
+ *      is on, so a move only has to xor out the keys of the cells it changes and xor in the new ones. The keys come
+ *      from a fixed function of the cell and height, so equal configurations get equal hashes even when they were
+ *      loaded separately
+ *
+ * @author Giovanni Coppola
+ */
+class TipOverContext {
+    /**
+     * Private members for the context
+     */
+    private final int numberOfRows;
+    private final int numberOfColumns;
+    private final Coordinates goalCrate;
+    private final int maxHeight;
+    private final int cellBits;
+    private final long[] heightKeys;
+    private final long[] tipperKeys;
+
+    /**
+     * Create a new context
+     *
+     * @param numberOfRows - the number of rows in the grid
+     * @param numberOfColumns - the number of columns in the grid
+     * @param goalCrate - the coordinates of the goal crate
+     * @param tallest - the height of the tallest tower on the starting grid
+     */
+    TipOverContext(int numberOfRows, int numberOfColumns, Coordinates goalCrate, int tallest) {
+        if (tallest > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Towers can not be taller than " + Byte.MAX_VALUE + ": " + tallest);
+        }
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        this.goalCrate = goalCrate;
+        // Tipping a tower always leaves crates of height 1, so 1 is always a possible height
+        this.maxHeight = Math.max(tallest, 1);
+        this.cellBits = Integer.SIZE - Integer.numberOfLeadingZeros(tallest);
+
+        int cells = numberOfRows * numberOfColumns;
+        this.heightKeys = new long[cells * (this.maxHeight + 1)];
+        this.tipperKeys = new long[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            for (int height = 0; height <= this.maxHeight; height++) {
+                this.heightKeys[cell * (this.maxHeight + 1) + height] = mix(((long) cell << 8 | height) << 1);
+            }
+            this.tipperKeys[cell] = mix(((long) cell << 8) << 1 | 1);
+        }
+    }
+
+    int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    Coordinates getGoalCrate() {
+        return goalCrate;
+    }
+
+    int getCellBits() {
+        return cellBits;
+    }
+
+    /**
+     * Get the Zobrist key for a cell having a height
+     *
+     * @param cell - the index of the cell (row * columns + column)
+     * @param height - the height of the cell
+     * @return - the key to xor into the hash
+     */
+    long heightKey(int cell, int height) {
+        return heightKeys[cell * (maxHeight + 1) + height];
+    }
+
+    /**
+     * Get the Zobrist key for the tipper being on a cell
+     *
+     * @param cell - the index of the cell (row * columns + column)
+     * @return - the key to xor into the hash
+     */
+    long tipperKey(int cell) {
+        return tipperKeys[cell];
+    }
+
+    /**
+     * Check if another context is for the same grid size and goal
+     *
+     * @param other - the other context
+     * @return - true if configurations from both contexts can be compared
+     */
+    boolean sameGrid(TipOverContext other) {
+        return this == other || (this.numberOfRows == other.numberOfRows &&
+                this.numberOfColumns == other.numberOfColumns && this.goalCrate.equals(other.goalCrate));
+    }
+
+    /**
+     * Scramble the bits of a value (the splitmix64 finalizer), used to make the Zobrist keys
+     *
+     * @param value - the value to scramble
+     * @return - a well mixed 64 bit key
+     */
+    private static long mix(long value) {
+        value += 0x9E3779B97F4A7C15L;
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,145 @@
+package puzzles.tipover.model;
+
+import solver.PuzzleGenerator;
+import util.Coordinates;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Makes random TipOver puzzles that are known to be solvable (see PuzzleGenerator). The towers and crates are placed
+ *      at random with the tipper on one of the towers, and one of the crates the tipper can reach becomes the goal
+ *
+ * @author Giovanni Coppola
+ */
+public class TipOverGenerator extends PuzzleGenerator<TipOverConfig> {
+    /**
+     * Private members for the generator
+     */
+    private static final int MAX_TOWER_HEIGHT = 4;
+    private final int towers;
+    private final int crates;
+
+    /**
+     * Create a new instance of the generator
+     *
+     * @param numberOfRows - the number of rows of the grid
+     * @param numberOfColumns - the number of columns of the grid
+     * @param towers - the number of towers, including the one the tipper starts on
+     * @param crates - the number of crates, one of which becomes the goal
+     * @param targetDepth - the number of moves the solution should take
+     * @param seed - the seed for the random placement
+     */
+    public TipOverGenerator(int numberOfRows, int numberOfColumns, int towers, int crates, int targetDepth,
+                            long seed) {
+        this(numberOfRows, numberOfColumns, towers, crates, targetDepth, seed, DEFAULT_MAX_CONFIGS);
+    }
+
+    /**
+     * Create a new instance of the generator
+     *
+     * @param numberOfRows - the number of rows of the grid
+     * @param numberOfColumns - the number of columns of the grid
+     * @param towers - the number of towers, including the one the tipper starts on
+     * @param crates - the number of crates, one of which becomes the goal
+     * @param targetDepth - the number of moves the solution should take
+     * @param seed - the seed for the random placement
+     * @param maxConfigs - the most configurations the search of each layout can visit
+     */
+    public TipOverGenerator(int numberOfRows, int numberOfColumns, int towers, int crates, int targetDepth,
+                            long seed, int maxConfigs) {
+        super(numberOfRows, numberOfColumns, targetDepth, seed, maxConfigs);
+        if (towers < 1 || crates < 1 || (long) towers + crates > (long) numberOfRows * numberOfColumns) {
+            throw new IllegalArgumentException("Can not fit " + towers + " towers and " + crates + " crates on a " +
+                    numberOfRows + "x" + numberOfColumns + " grid");
+        }
+        this.towers = towers;
+        this.crates = crates;
+    }
+
+    /**
+     * Make a puzzle
+     * @param args [0]: rows, [1]: columns, [2]: towers, [3]: crates, [4]: target depth, [5]: seed;
+     *             [6] (optional): the file to write, otherwise the puzzle is printed
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 6) {
+            System.out.println("Usage: java TipOverGenerator rows columns towers crates depth seed [file]");
+        } else {
+            TipOverGenerator generator = new TipOverGenerator(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+                    Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                    Long.parseLong(args[5]));
+            write(generator.format(generator.generate()), args.length > 6 ? args[6] : null);
+        }
+    }
+
+    /**
+     * Write a puzzle in the format read by TipOverModel.loadConfig, with the depth and seed after the grid
+     *
+     * @param config - the start of the puzzle
+     * @return - the contents of the puzzle file
+     */
+    @Override
+    public String format(TipOverConfig config) {
+        StringBuilder text = new StringBuilder();
+        text.append(config.getNumberOfRows()).append(' ').append(config.getNumberOfColumns()).append(' ')
+                .append(config.getTipper().row()).append(' ').append(config.getTipper().col()).append(' ')
+                .append(config.getGoalCrate().row()).append(' ').append(config.getGoalCrate().col()).append('\n');
+        for (int[] row : config.getGameBoard()) {
+            for (int col = 0; col < row.length; col++) {
+                text.append(col == 0 ? "" : " ").append(row[col]);
+            }
+            text.append('\n');
+        }
+        return text.append(trailer()).toString();
+    }
+
+    @Override
+    protected TipOverConfig layout(Random random) {
+        // Shuffle the first cells into place, the first one is the tipper, then the towers, then the crates
+        int numberOfColumns = getNumberOfColumns();
+        int cells = getNumberOfRows() * numberOfColumns;
+        int[] order = new int[cells];
+        for (int index = 0; index < cells; index++) {
+            order[index] = index;
+        }
+        int[][] gameBoard = new int[getNumberOfRows()][numberOfColumns];
+        for (int index = 0; index < towers + crates; index++) {
+            int swap = index + random.nextInt(cells - index);
+            int cell = order[swap];
+            order[swap] = order[index];
+            order[index] = cell;
+            gameBoard[cell / numberOfColumns][cell % numberOfColumns] =
+                    index < towers ? 2 + random.nextInt(MAX_TOWER_HEIGHT - 1) : 1;
+        }
+        Coordinates tipper = new Coordinates(order[0] / numberOfColumns, order[0] % numberOfColumns);
+        return new TipOverConfig(getNumberOfRows(), numberOfColumns, gameBoard, tipper, tipper);
+    }
+
+    @Override
+    protected BitSet goalCells(TipOverConfig start) {
+        // Only the crates can be the goal
+        BitSet goalCells = new BitSet();
+        int[][] gameBoard = start.getGameBoard();
+        for (int row = 0; row < gameBoard.length; row++) {
+            for (int col = 0; col < gameBoard[row].length; col++) {
+                if (gameBoard[row][col] == 1) {
+                    goalCells.set(cell(row, col));
+                }
+            }
+        }
+        return goalCells;
+    }
+
+    @Override
+    protected int moverCell(TipOverConfig config) {
+        return cell(config.getTipper().row(), config.getTipper().col());
+    }
+
+    @Override
+    protected TipOverConfig withGoal(TipOverConfig start, int row, int col) {
+        return new TipOverConfig(getNumberOfRows(), getNumberOfColumns(), start.getGameBoard(), start.getTipper(),
+                new Coordinates(row, col));
+    }
+}
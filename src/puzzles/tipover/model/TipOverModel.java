@@ -1,15 +1,19 @@
 package puzzles.tipover.model;
 
+import puzzles.tipover.TipOver;
 import solver.Configuration;
-import solver.Solver;
+import solver.AStarSolver;
+import solver.HintService;
+import solver.SolutionCache;
+import solver.SolveLimits;
+import solver.SolveResult;
 import util.Coordinates;
 import util.Observer;
 
-import java.io.File;
 import java.io.FileNotFoundException;
+import java.time.Duration;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Scanner;
 
 /**
  * This class will represent the model of the config that will be used for both the PTUI and GUI.
@@ -22,10 +26,16 @@ import java.util.Scanner;
  */
 public class TipOverModel {
 
+    // The longest the hint service can spend on a table of the whole puzzle before it searches from the config instead
+    private static final SolveLimits HINT_LIMITS = new SolveLimits(Duration.ofSeconds(2), 0, null);
+
     // Private state variables for the model including the list of observers, the current config, and the filename
     private List<Observer< TipOverModel, Object>> observers;
     private TipOverConfig currentConfig;
     private String filename;
+    // Works out the path to the goal in the background after every load and move, so a hint never waits on a search
+    private final HintService hints = new HintService(HINT_LIMITS);
+    private boolean hintWanted;
 
     /**
      * Constructor for the tipover model. This will set the config based on the args pass in
@@ -42,6 +52,8 @@ public class TipOverModel {
         } else {
             this.currentConfig = null;
         }
+        this.hints.setListener(this::hintReady);
+        startHints();
     }
 
     /**
@@ -52,39 +64,8 @@ public class TipOverModel {
      */
     public TipOverConfig loadConfig (String filename) {
         try {
-            // Set the input file and scanner
-            File inputFile = new File(filename);
-            Scanner scanner = new Scanner(inputFile);
-
-            // Scan in the first line of data to represent the current grid state
-            int numOfRows = scanner.nextInt();
-            int numOfCols = scanner.nextInt();
-            int tipperRow = scanner.nextInt();
-            int tipperCol = scanner.nextInt();
-            int goalRow = scanner.nextInt();
-            int goalCol = scanner.nextInt();
-
-            // Set the coordinates of the tipper and goal
-            Coordinates tipperPosition = new Coordinates(tipperRow, tipperCol);
-            Coordinates goalPosition = new Coordinates(goalRow, goalCol);
-
-            // Create the current array for the game board
-            int[][] gameBoardArray = new int[numOfRows][numOfCols];
-            int row = 0;
-            int col = 0;
-            // Set the integers for the board by scanning in the next integer from the input file until there are
-            //      none left
-            while (scanner.hasNextInt()) {
-                gameBoardArray[row][col] = scanner.nextInt();
-                col++;
-                if (col >= numOfCols) {
-                    col = 0;
-                    row++;
-                }
-            }
-
-            // Create a new instance of the TipOver class and call the solver on it to find the solution by BFS
-            return new TipOverConfig(numOfRows, numOfCols, gameBoardArray, tipperPosition, goalPosition);
+            // The file is read the same way as for the solver
+            return TipOver.loadConfig(filename);
         } catch (FileNotFoundException ignored) {
 
         }
@@ -129,9 +110,19 @@ public class TipOverModel {
     }
 
     public List<Configuration> getCheatList() {
+        return getCheatResult(SolveLimits.NONE).getPath();
+    }
+
+    /**
+     * Method to search for the path from the current config to the solution within the given limits
+     *
+     * @param limits - the limits for the search
+     * @return - the result of the search, with the path if it was found in time
+     */
+    public SolveResult getCheatResult(SolveLimits limits) {
         Configuration tipOverSolver = new TipOverConfig(currentConfig);
-        Solver solve = new Solver(tipOverSolver);
-        return solve.solver();
+        AStarSolver solve = new AStarSolver(tipOverSolver);
+        return solve.solve(limits);
     }
 
     /**
@@ -139,10 +130,11 @@ public class TipOverModel {
      *
      * @param direction - the direction to move the tipper in
      */
-    public void moveTipper(String direction) {
+    public synchronized void moveTipper(String direction) {
         if (currentConfig != null) {
             // Move the tipper in the direction that was input by the user
             String message = currentConfig.moveTipper(direction);
+            hints.update(new TipOverConfig(currentConfig));
             if (currentConfig.isSolution()) {
                 announce("YOU WIN!");
             } else {
@@ -157,10 +149,11 @@ public class TipOverModel {
     /**
      * Method to reload the file that was previously used, if there was one already made
      */
-    public void reload() {
+    public synchronized void reload() {
         if (currentConfig != null) {
             // Only load the file if there was one previously present
             this.currentConfig = loadConfig(filename);
+            startHints();
             announce("File has been reloaded.");
         } else {
             announce("No file loaded.");
@@ -172,13 +165,14 @@ public class TipOverModel {
      *
      * @param filename
      */
-    public void load(String filename) {
+    public synchronized void load(String filename) {
         this.filename = filename;
         // Create a tempConfig to hold the value of the possible new config
         TipOverConfig tempConfig = loadConfig(this.filename);
         if (tempConfig != null) {
             // Create a valid config if a valid file was presented
             this.currentConfig = tempConfig;
+            startHints();
             announce("New file loaded.");
         } else {
             announce("Invalid file loaded.");
@@ -193,19 +187,33 @@ public class TipOverModel {
     }
 
     /**
-     * Method to show the user the next move for the tipper
+     * Method to show the user the next move for the tipper. The path is taken from the hint service, if it is still
+     *      being worked out the hint is given as soon as it is ready
      */
-    public void hint() {
-        List<Configuration> cheatList = this.getCheatList();
+    public synchronized void hint() {
+        if (currentConfig == null) {
+            announce("No file loaded.");
+            return;
+        }
+        SolveResult result = hints.resultFor(currentConfig);
+        if (result == null) {
+            hintWanted = true;
+            hints.update(new TipOverConfig(currentConfig));
+            announce("Working on a hint...");
+            return;
+        }
+
+        hintWanted = false;
+        List<Configuration> cheatList = result.getPath();
         if (cheatList.size() == 1) {
-            // If there is only one nod ein the cheat list, then announce that it is the solution
+            // If there is only one node in the cheat list, then announce that it is the solution
             announce("Already solved.");
         } else if (cheatList.isEmpty()) {
             // If there were no elements found, announce that there is no solution
             announce("No solution.");
         } else {
-            // Set the new current config to the next step in the cheat list
-            currentConfig = (TipOverConfig) cheatList.get(1);
+            // Set the new current config to a copy of the next step, the path is kept for the next hint
+            currentConfig = new TipOverConfig((TipOverConfig) cheatList.get(1));
             if (cheatList.size() == 2) {
                 announce("You win!");
             } else {
@@ -214,6 +222,26 @@ public class TipOverModel {
         }
     }
 
+    /**
+     * Method called by the hint service when a path has been worked out, which gives the hint the user asked for
+     */
+    private synchronized void hintReady() {
+        if (hintWanted) {
+            hint();
+        }
+    }
+
+    /**
+     * Method to start working out the path for a newly loaded puzzle, unless it is already in the solution cache
+     */
+    private void startHints() {
+        hintWanted = false;
+        if (currentConfig != null) {
+            TipOverConfig start = new TipOverConfig(currentConfig);
+            hints.reset(start, SolutionCache.getDefault().get(SolutionCache.keyForFile("tipover", filename), start));
+        }
+    }
+
     public void addObserver(Observer<TipOverModel, Object> obs) {
         this.observers.add(obs);
     }
@@ -1,8 +1,12 @@
 package puzzles.water;
 
 import solver.Configuration;
+import solver.EncodableConfiguration;
+import solver.SolveLimits;
+import solver.SolveResult;
 import solver.Solver;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -10,13 +14,14 @@ import java.util.*;
  *
  * @author Giovanni Coppola
  */
-public class Water implements Configuration {
+public class Water implements EncodableConfiguration {
     /**
-     * Private members for the water class
+     * Private members for the water class. The capacities never change while solving, so every copy shares the
+     *      same array
      */
     private int amountOfWater;
-    private List<Integer> capacityOfNBuckets;
-    private List<Integer> amountInBuckets;
+    private final int[] capacityOfNBuckets;
+    private final int[] amountInBuckets;
 
     /**
      * Create a new instance of the water class
@@ -26,12 +31,12 @@ public class Water implements Configuration {
      */
     public Water(int amountOfWater, List<Integer> capacityOfNBuckets) {
         this.amountOfWater = amountOfWater;
-        this.capacityOfNBuckets = capacityOfNBuckets;
-        this.amountInBuckets = new LinkedList<>();
-        // Set each current amount of water in the buckets to 0
-        for (int index = 0; index < capacityOfNBuckets.size(); index++) {
-            this.amountInBuckets.add(0);
+        this.capacityOfNBuckets = new int[capacityOfNBuckets.size()];
+        for (int index = 0; index < this.capacityOfNBuckets.length; index++) {
+            this.capacityOfNBuckets[index] = capacityOfNBuckets.get(index);
         }
+        // Every bucket starts out empty
+        this.amountInBuckets = new int[this.capacityOfNBuckets.length];
     }
 
     /**
@@ -40,10 +45,10 @@ public class Water implements Configuration {
      * @param other - an instance of Water
      */
     public Water(Water other) {
-        // Create a copy of water
+        // Create a copy of water, only the amounts are copied
         this.amountOfWater = other.amountOfWater;
-        this.capacityOfNBuckets = new LinkedList<>(other.capacityOfNBuckets);
-        this.amountInBuckets = new LinkedList<>(other.amountInBuckets);
+        this.capacityOfNBuckets = other.capacityOfNBuckets;
+        this.amountInBuckets = other.amountInBuckets.clone();
     }
 
     /**
@@ -61,15 +66,19 @@ public class Water implements Configuration {
             for (int index = 1; index < args.length; index++) {
                 buckets.add(Integer.parseInt(args[index]));
             }
-            // Create a new instance of water and solver and call the solve method
-            Configuration node = new Water(Integer.parseInt(args[0]), buckets);
-            Solver solve = new Solver(node);
-            List<Configuration> solved = solve.solver();
+            // Create a new instance of water and solve it
+            SolveResult result = solve(new Water(Integer.parseInt(args[0]), buckets));
+            List<Configuration> solved = result.getPath();
 
             // Print out the header for the water and the results of the BFS algorithm
             System.out.println("Amount: " + args[0] + ", Buckets: " + buckets);
-            System.out.println("Total configs: " + solve.getTotalConfigs());
-            System.out.println("Unique configs: " + solve.getUniqueConfigs());
+            if (result.getStatus() == SolveResult.Status.REJECTED) {
+                // Nothing was searched, so there are no configs to count
+                System.out.println("Rejected before searching: " + args[0] + " can never be in one of the buckets");
+            } else {
+                System.out.println("Total configs: " + result.getTotalConfigs());
+                System.out.println("Unique configs: " + result.getUniqueConfigs());
+            }
             if (solved.isEmpty()) {
                 // Print out no solution if the solved list is empty
                 System.out.println("No solution");
@@ -82,6 +91,31 @@ public class Water implements Configuration {
         }
     }
 
+    /**
+     * Solve the puzzle from the given buckets. Amounts that can never be in a bucket are rejected without searching
+     *      (the status is REJECTED), and the packed engine is used if the buckets fit in a long
+     *
+     * @param node - the buckets to start from
+     * @return - the result of the search
+     */
+    public static SolveResult solve(Water node) {
+        List<Integer> capacities = new ArrayList<>();
+        for (int capacity : node.capacityOfNBuckets) {
+            capacities.add(capacity);
+        }
+        if (WaterAnalyzer.isImpossible(node.amountOfWater, capacities)) {
+            // The amount can never be in a bucket, so there is nothing to search
+            return new SolveResult(SolveResult.Status.REJECTED, new LinkedList<>(), -1, 0, 0);
+        } else if (node.fitsInLong()) {
+            WaterEngine engine = new WaterEngine(node);
+            List<Configuration> solved = engine.solver();
+            return new SolveResult(solved.isEmpty() ? SolveResult.Status.UNSOLVABLE : SolveResult.Status.SOLVED,
+                    solved, engine.getDepth(), engine.getTotalConfigs(), engine.getUniqueConfigs());
+        } else {
+            return new Solver(node).solve(SolveLimits.NONE);
+        }
+    }
+
     /**
      * Method to find if the current bucket list is the solution or not
      *
@@ -89,73 +123,154 @@ public class Water implements Configuration {
      */
     @Override
     public boolean isSolution() {
-        return this.amountInBuckets.contains(this.amountOfWater);
+        for (int amount : this.amountInBuckets) {
+            if (amount == this.amountOfWater) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Method to get the neighbors of the current bucket list
+     * Method to get the neighbors of the current bucket list. Moves that lead to the same buckets are only kept once,
+     *      in the order they were first found
      *
      * @return - the collection of neighbors found
      */
     @Override
     public Collection<Configuration> getNeighbors() {
 
-        // Create a new neighbors list
-        List<Configuration> neighbors = new LinkedList<>();
-
-        // Integer that will be used as a variable to store how much will be poured into another bucket
-        int amountToPour = 0;
-
-        //Create a copy of the current water configuration
-        Water waterConfig = new Water(this);
+        // Create a new neighbors set, the hashing makes checking for a repeated neighbor constant time
+        Set<Configuration> neighbors = new LinkedHashSet<>();
+        int buckets = this.amountInBuckets.length;
 
         // For loop to loop through and fill each bucket and make a new neighbor from that
-        for (int index = 0; index < waterConfig.amountInBuckets.size(); index++) {
-            waterConfig.amountInBuckets.set(index, waterConfig.capacityOfNBuckets.get(index));
-            if (!neighbors.contains(waterConfig)) {
-                neighbors.add(new Water(waterConfig));
-            }
-            waterConfig = new Water(this);
+        for (int index = 0; index < buckets; index++) {
+            Water waterConfig = new Water(this);
+            waterConfig.amountInBuckets[index] = this.capacityOfNBuckets[index];
+            neighbors.add(waterConfig);
         }
 
         // Nested for loop to go through each combination to figure out if one bucket needs to be poured into another
-        for (int index = 0; index < waterConfig.amountInBuckets.size(); index++) {
-            for (int value = 0; value < waterConfig.amountInBuckets.size(); value++) {
+        for (int index = 0; index < buckets; index++) {
+            for (int value = 0; value < buckets; value++) {
                 if (index != value) {
                     // Calculate the amount that will be poured from one bucket to another
-                    amountToPour = Math.min(waterConfig.amountInBuckets.get(index), (waterConfig.capacityOfNBuckets.get(value) - waterConfig.amountInBuckets.get(value)));
-                    //amountToPour = waterConfig.capacityOfNBuckets.get(value) - waterConfig.amountInBuckets.get(value);
-                    // Add the amount to the smaller bucket and subtract from the larger one
-                    waterConfig.amountInBuckets.set(value, waterConfig.amountInBuckets.get(value) + amountToPour);
-                    waterConfig.amountInBuckets.set(index, waterConfig.amountInBuckets.get(index) - amountToPour);
-                    if (!neighbors.contains(waterConfig)) {
-                        neighbors.add(new Water(waterConfig));
-                    }
-                    waterConfig = new Water(this);
+                    int amountToPour = Math.min(this.amountInBuckets[index],
+                            this.capacityOfNBuckets[value] - this.amountInBuckets[value]);
+                    Water waterConfig = new Water(this);
+                    waterConfig.amountInBuckets[value] += amountToPour;
+                    waterConfig.amountInBuckets[index] -= amountToPour;
+                    neighbors.add(waterConfig);
                 }
             }
         }
 
         // For loop that will loop through and empty out all the buckets
-        for (int index = 0; index < waterConfig.amountInBuckets.size(); index++) {
-            waterConfig.amountInBuckets.set(index, 0);
-            if (!neighbors.contains(waterConfig)) {
-                neighbors.add(new Water(waterConfig));
-            }
-            waterConfig = new Water(this);
+        for (int index = 0; index < buckets; index++) {
+            Water waterConfig = new Water(this);
+            waterConfig.amountInBuckets[index] = 0;
+            neighbors.add(waterConfig);
         }
 
         return neighbors;
     }
 
+    /**
+     * Encode the amount in each bucket, the capacities and the goal amount do not change while solving
+     *
+     * @return - the amounts in the buckets as bytes
+     */
+    @Override
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * this.amountInBuckets.length);
+        for (int amount : this.amountInBuckets) {
+            buffer.putInt(amount);
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public Configuration decode(byte[] key) {
+        ByteBuffer buffer = ByteBuffer.wrap(key);
+        Water water = new Water(this);
+        for (int index = 0; index < water.amountInBuckets.length; index++) {
+            water.amountInBuckets[index] = buffer.getInt();
+        }
+        return water;
+    }
+
+    /**
+     * The buckets fit in a long if the bits needed for every capacity add up to 64 or less
+     *
+     * @return - true if the amounts can be packed into a long
+     */
+    @Override
+    public boolean fitsInLong() {
+        int bits = 0;
+        for (int capacity : this.capacityOfNBuckets) {
+            bits += bitsFor(capacity);
+        }
+        return bits <= Long.SIZE;
+    }
+
+    @Override
+    public long encodeLong() {
+        long key = 0;
+        for (int index = 0; index < this.amountInBuckets.length; index++) {
+            key = (key << bitsFor(this.capacityOfNBuckets[index])) | this.amountInBuckets[index];
+        }
+        return key;
+    }
+
+    @Override
+    public Configuration decodeLong(long key) {
+        Water water = new Water(this);
+        // The last bucket was packed into the lowest bits, so unpack from the end
+        for (int index = water.amountInBuckets.length - 1; index >= 0; index--) {
+            int bits = bitsFor(water.capacityOfNBuckets[index]);
+            water.amountInBuckets[index] = (int) (key & ((1L << bits) - 1));
+            key >>>= bits;
+        }
+        return water;
+    }
+
+    /**
+     * Get the amount of water that needs to be in one bucket at the end
+     *
+     * @return - the goal amount
+     */
+    int getAmountOfWater() {
+        return this.amountOfWater;
+    }
+
+    /**
+     * Get the capacities of the buckets. The array is shared, so it must not be changed
+     *
+     * @return - the capacity of each bucket
+     */
+    int[] getCapacities() {
+        return this.capacityOfNBuckets;
+    }
+
+    /**
+     * Get the number of bits needed to store any amount from 0 up to the given capacity
+     *
+     * @param capacity - the capacity of a bucket
+     * @return - the number of bits needed
+     */
+    static int bitsFor(int capacity) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(capacity);
+    }
+
     @Override
     public String toString() {
-        return "" + this.amountInBuckets;
+        return Arrays.toString(this.amountInBuckets);
     }
 
     @Override
     public int hashCode() {
-        return this.amountOfWater + this.capacityOfNBuckets.hashCode() + this.amountInBuckets.hashCode();
+        return this.amountOfWater + Arrays.hashCode(this.capacityOfNBuckets) + Arrays.hashCode(this.amountInBuckets);
     }
 
     @Override
@@ -164,8 +279,8 @@ public class Water implements Configuration {
         if (other instanceof Water) {
             Water newClock = (Water) other;
             result = this.amountOfWater == newClock.amountOfWater &&
-            this.capacityOfNBuckets.equals(newClock.capacityOfNBuckets) &&
-            this.amountInBuckets.equals(newClock.amountInBuckets);
+            Arrays.equals(this.capacityOfNBuckets, newClock.capacityOfNBuckets) &&
+            Arrays.equals(this.amountInBuckets, newClock.amountInBuckets);
         }
         return result;
     }
@@ -0,0 +1,113 @@
+package puzzles.water;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers whether an amount can be measured with a set of buckets without solving the puzzle.
+ * Filling, emptying and pouring only ever leave multiples of the gcd of the capacities in a bucket, and no bucket can
+ *      hold more than its capacity, so any other amount is rejected right away. The amounts that pass can be looked up
+ *      in the set of every amount that shows up in a bucket while searching the whole puzzle, which is worked out once
+ *      per set of capacities and kept for later queries
+ *
+ * @author Giovanni Coppola
+ */
+public class WaterAnalyzer {
+    /**
+     * Private members for the water analyzer
+     */
+    private static final Map<List<Integer>, BitSet> reachable = new ConcurrentHashMap<>();
+
+    private WaterAnalyzer() {
+    }
+
+    /**
+     * Check if an amount can not be measured with a set of buckets, only using the capacities
+     *
+     * @param amountOfWater - the amount that needs to be in one bucket at the end
+     * @param capacities - the capacity of each bucket
+     * @return - true if the amount can never be in a bucket, false if it might be
+     */
+    public static boolean isImpossible(int amountOfWater, List<Integer> capacities) {
+        if (amountOfWater == 0) {
+            // Every bucket starts out empty
+            return false;
+        }
+        int largest = 0;
+        int gcd = 0;
+        for (int capacity : capacities) {
+            largest = Math.max(largest, capacity);
+            gcd = gcd(gcd, capacity);
+        }
+        return amountOfWater < 0 || amountOfWater > largest || gcd == 0 || amountOfWater % gcd != 0;
+    }
+
+    /**
+     * Check if an amount can be measured with a set of buckets. The first query for a set of capacities searches
+     *      every configuration of the buckets, later queries are looked up. The search uses the packed engine, so
+     *      only buckets that fit in a long can be checked
+     *
+     * @param amountOfWater - the amount that needs to be in one bucket at the end
+     * @param capacities - the capacity of each bucket, they must fit in a long (see Water.fitsInLong)
+     * @return - true if the amount can be in a bucket
+     * @throws IllegalArgumentException - if the amount might be reachable and the buckets do not fit in a long
+     */
+    public static boolean isReachable(int amountOfWater, List<Integer> capacities) {
+        if (isImpossible(amountOfWater, capacities)) {
+            return false;
+        }
+        return reachableAmounts(capacities).get(amountOfWater);
+    }
+
+    /**
+     * Get every amount that can be in a bucket for a set of capacities
+     *
+     * @param capacities - the capacity of each bucket, they must fit in a long (see Water.fitsInLong)
+     * @return - the set of amounts, which must not be changed
+     * @throws IllegalArgumentException - if the buckets do not fit in a long
+     */
+    public static BitSet reachableAmounts(List<Integer> capacities) {
+        List<Integer> key = List.copyOf(capacities);
+        BitSet amounts = reachable.get(key);
+        if (amounts == null) {
+            Water start = new Water(-1, key);
+            if (!start.fitsInLong()) {
+                throw new IllegalArgumentException("The reachable amounts can only be worked out for buckets that " +
+                        "fit in a long: " + key);
+            }
+            // Search outside of the map so queries for other capacities are not held up. Two threads can both
+            //      search the same capacities, in which case the first set that was stored is kept
+            amounts = new WaterEngine(start).reachableAmounts();
+            BitSet stored = reachable.putIfAbsent(key, amounts);
+            if (stored != null) {
+                amounts = stored;
+            }
+        }
+        return amounts;
+    }
+
+    /**
+     * Forget every set of amounts that has been worked out
+     */
+    public static void clear() {
+        reachable.clear();
+    }
+
+    /**
+     * Get the greatest common divisor of two numbers
+     *
+     * @param first - the first number
+     * @param second - the second number
+     * @return - the gcd, which is the other number if one of them is 0
+     */
+    private static int gcd(int first, int second) {
+        while (second != 0) {
+            int remainder = first % second;
+            first = second;
+            second = remainder;
+        }
+        return Math.abs(first);
+    }
+}
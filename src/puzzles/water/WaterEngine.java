@@ -0,0 +1,245 @@
+package puzzles.water;
+
+import solver.Configuration;
+import solver.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class solves the water buckets puzzle with a BFS over the buckets packed into a long (see Water.encodeLong),
+ *      so nothing is allocated while searching other than growing the arrays.
+ * The keys are stored in the order they are found, which is also the queue order, next to the index of the key they
+ *      were found from. The neighbors are made with the same moves and in the same order as Water.getNeighbors, so the
+ *      path and the number of configurations are the same as the ones from the regular solver
+ *
+ * @author Giovanni Coppola
+ */
+public class WaterEngine {
+    /**
+     * Private members for the water engine
+     */
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private final Water startNode;
+    private final int amountOfWater;
+    private final int[] capacities;
+    private final int[] shifts;
+    private final long[] masks;
+    private long totalConfigs = 0;
+    private long uniqueConfigs = 0;
+    private int depth = -1;
+
+    /**
+     * Create a new instance of the water engine
+     *
+     * @param startNode - the buckets to start the search from, they must fit in a long
+     */
+    public WaterEngine(Water startNode) {
+        if (!startNode.fitsInLong()) {
+            throw new IllegalArgumentException("The water engine needs buckets that fit in a long");
+        }
+        this.startNode = startNode;
+        this.amountOfWater = startNode.getAmountOfWater();
+        this.capacities = startNode.getCapacities();
+        this.shifts = new int[capacities.length];
+        this.masks = new long[capacities.length];
+        // The last bucket is in the lowest bits, so work out the positions from the end
+        int shift = 0;
+        for (int index = capacities.length - 1; index >= 0; index--) {
+            int bits = Water.bitsFor(capacities[index]);
+            shifts[index] = shift;
+            masks[index] = ((1L << bits) - 1) << shift;
+            shift += bits;
+        }
+    }
+
+    /**
+     * Solver method that will conduct the BFS until the final buckets are reached
+     *
+     * @return - the list of configurations in the path order to the solution, empty if there is no solution
+     */
+    public List<Configuration> solver() {
+        return search(null);
+    }
+
+    /**
+     * Search every configuration that can be reached from the start and collect the amounts that show up in any
+     *      bucket. The search stops early if the goal amount is found, so the start should have a goal that can not
+     *      be reached to get every amount
+     *
+     * @return - the set of amounts that were found in a bucket
+     */
+    public BitSet reachableAmounts() {
+        BitSet amountsFound = new BitSet();
+        search(amountsFound);
+        return amountsFound;
+    }
+
+    /**
+     * Conduct the BFS until the final buckets are reached or every configuration has been expanded
+     *
+     * @param amountsFound - the set to add the amount in each bucket of each expanded configuration to, or null
+     * @return - the list of configurations in the path order to the solution, empty if there is no solution
+     */
+    private List<Configuration> search(BitSet amountsFound) {
+        int buckets = capacities.length;
+        long[] keys = new long[INITIAL_CAPACITY];
+        int[] parents = new int[INITIAL_CAPACITY];
+        LongIntHashMap visited = new LongIntHashMap();
+        int[] amounts = new int[buckets];
+        long[] neighbors = new long[buckets * (buckets + 1)];
+
+        keys[0] = startNode.encodeLong();
+        parents[0] = -1;
+        visited.put(keys[0], 0);
+        int size = 1;
+        totalConfigs++;
+
+        int finalIndex = -1;
+        int levelDepth = 0;
+        int levelEnd = 1;
+        // Everything before next has been expanded and everything after it is waiting in the queue
+        for (int next = 0; next < size; next++) {
+            if (next == levelEnd) {
+                levelDepth++;
+                levelEnd = size;
+            }
+            long key = keys[next];
+            uniqueConfigs++;
+            boolean solution = unpack(key, amounts);
+            if (amountsFound != null) {
+                for (int amount : amounts) {
+                    amountsFound.set(amount);
+                }
+            }
+            if (solution) {
+                finalIndex = next;
+                depth = levelDepth;
+                uniqueConfigs++;
+                break;
+            }
+
+            int count = neighbors(key, amounts, neighbors);
+            for (int index = 0; index < count; index++) {
+                totalConfigs++;
+                if (visited.putIfAbsent(neighbors[index], size) < 0) {
+                    if (size == keys.length) {
+                        keys = Arrays.copyOf(keys, size << 1);
+                        parents = Arrays.copyOf(parents, size << 1);
+                    }
+                    keys[size] = neighbors[index];
+                    parents[size] = next;
+                    size++;
+                }
+            }
+        }
+
+        // Decode the configurations on the path, walking back from the solution
+        List<Configuration> path = new ArrayList<>();
+        for (int index = finalIndex; index > 0; index = parents[index]) {
+            path.add(startNode.decodeLong(keys[index]));
+        }
+        if (finalIndex >= 0) {
+            path.add(startNode);
+            Collections.reverse(path);
+        }
+        return path;
+    }
+
+    /**
+     * Unpack the amount in each bucket from a key
+     *
+     * @param key - the packed buckets
+     * @param amounts - the array to put the amounts in
+     * @return - true if one of the buckets has the goal amount
+     */
+    private boolean unpack(long key, int[] amounts) {
+        boolean solution = false;
+        for (int index = 0; index < amounts.length; index++) {
+            amounts[index] = (int) ((key & masks[index]) >>> shifts[index]);
+            solution |= amounts[index] == amountOfWater;
+        }
+        return solution;
+    }
+
+    /**
+     * Make the keys of every neighbor, filling each bucket, then pouring each bucket into each other one, then
+     *      emptying each bucket. A key that was already made for this configuration is left out
+     *
+     * @param key - the packed buckets to make the neighbors of
+     * @param amounts - the amount in each bucket
+     * @param neighbors - the array to put the neighbor keys in
+     * @return - the number of neighbors
+     */
+    private int neighbors(long key, int[] amounts, long[] neighbors) {
+        int count = 0;
+        for (int index = 0; index < amounts.length; index++) {
+            count = add(neighbors, count, with(key, index, capacities[index]));
+        }
+        for (int index = 0; index < amounts.length; index++) {
+            for (int value = 0; value < amounts.length; value++) {
+                if (index != value) {
+                    int amountToPour = Math.min(amounts[index], capacities[value] - amounts[value]);
+                    long poured = with(with(key, value, amounts[value] + amountToPour), index,
+                            amounts[index] - amountToPour);
+                    count = add(neighbors, count, poured);
+                }
+            }
+        }
+        for (int index = 0; index < amounts.length; index++) {
+            count = add(neighbors, count, with(key, index, 0));
+        }
+        return count;
+    }
+
+    /**
+     * Add a key to the neighbors if it is not already one of them. There are only a few neighbors, so a scan is faster
+     *      than hashing
+     *
+     * @param neighbors - the neighbor keys so far
+     * @param count - the number of neighbor keys so far
+     * @param key - the key to add
+     * @return - the new number of neighbor keys
+     */
+    private static int add(long[] neighbors, int count, long key) {
+        for (int index = 0; index < count; index++) {
+            if (neighbors[index] == key) {
+                return count;
+            }
+        }
+        neighbors[count] = key;
+        return count + 1;
+    }
+
+    /**
+     * Change the amount in one bucket of a key
+     *
+     * @param key - the packed buckets
+     * @param bucket - the index of the bucket to change
+     * @param amount - the new amount for the bucket
+     * @return - the packed buckets with the change
+     */
+    private long with(long key, int bucket, int amount) {
+        return (key & ~masks[bucket]) | ((long) amount << shifts[bucket]);
+    }
+
+    public long getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    public long getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    /**
+     * Get the number of moves in the solution that was found last
+     *
+     * @return - the depth of the solution, or -1 if no solution was found
+     */
+    public int getDepth() {
+        return depth;
+    }
+}
@@ -0,0 +1,156 @@
+package solver;
+
+import java.util.*;
+
+/**
+ * This class finds a shortest path from a starting configuration to a solution using the A* algorithm.
+ * Configurations are expanded in order of moves taken so far plus the heuristic given by the configuration, so as
+ *      long as the heuristic never overestimates the path found is as short as the one found by the BFS solver
+ *
+ * @author Giovanni Coppola
+ */
+public class AStarSolver {
+    /**
+     * Private members for the A* solver
+     */
+    private Configuration startNode;
+    private long totalConfigs = 0;
+    private long uniqueConfigs = 0;
+    private int depth = -1;
+
+    /**
+     * Create a new instance of the A* solver
+     *
+     * @param startNode - the configuration to start the search from
+     */
+    public AStarSolver(Configuration startNode) {
+        this.startNode = startNode;
+    }
+
+    /**
+     * Solver method that will conduct the A* search to find the predecessors until the final node is reached
+     *
+     * @return - the list of configurations in the path order to the solution, empty if there is no solution
+     */
+    public List<Configuration> solver() {
+        return solve(SolveLimits.NONE).getPath();
+    }
+
+    /**
+     * Solver method that will conduct the A* search until the final node is reached, the open queue is empty or one
+     *      of the limits is reached. The limits are checked before each configuration is expanded
+     *
+     * @param limits - the time, node and cancellation limits for the search
+     * @return - the result of the search, with the path if a solution was found
+     */
+    public SolveResult solve(SolveLimits limits) {
+        Configuration finalNode = null;
+        SolveResult.Status status = SolveResult.Status.UNSOLVABLE;
+        long deadline = limits.deadline(System.nanoTime());
+        long expanded = 0;
+        int deepest = -1;
+        long order = 0;
+
+        // The open queue is ordered by the estimated total length, then by the order the entries were added so that
+        //      ties are broken the same way every time
+        PriorityQueue<Entry> open = new PriorityQueue<>();
+        open.add(new Entry(startNode, 0, startNode.getHeuristic(), order++));
+
+        // The best known number of moves to each configuration and the configuration it was reached from
+        Map<Configuration, Integer> moves = new HashMap<>();
+        Map<Configuration, Configuration> predecessors = new HashMap<>();
+        moves.put(startNode, 0);
+        predecessors.put(startNode, startNode);
+        totalConfigs++;
+
+        while (!open.isEmpty()) {
+            SolveResult.Status stop = limits.check(expanded, deadline);
+            if (stop != null) {
+                status = stop;
+                break;
+            }
+
+            Entry current = open.remove();
+            // Skip entries that were replaced by a shorter path after they were added
+            if (current.moves > moves.get(current.config)) {
+                continue;
+            }
+            uniqueConfigs++;
+            expanded++;
+            deepest = Math.max(deepest, current.moves);
+            if (current.config.isSolution()) {
+                finalNode = current.config;
+                status = SolveResult.Status.SOLVED;
+                depth = current.moves;
+                break;
+            }
+
+            int nextMoves = current.moves + 1;
+            for (Configuration nbr : current.config.getNeighbors()) {
+                totalConfigs++;
+                Integer known = moves.get(nbr);
+                if (known == null || nextMoves < known) {
+                    moves.put(nbr, nextMoves);
+                    predecessors.put(nbr, current.config);
+                    open.add(new Entry(nbr, nextMoves, nextMoves + nbr.getHeuristic(), order++));
+                }
+            }
+        }
+
+        // Walk back through the predecessors to build the path
+        List<Configuration> path = new ArrayList<>();
+        if (finalNode != null) {
+            Configuration currConfig = finalNode;
+            while (currConfig != startNode) {
+                path.add(currConfig);
+                currConfig = predecessors.get(currConfig);
+            }
+            path.add(startNode);
+            Collections.reverse(path);
+        }
+        return new SolveResult(status, path, deepest, totalConfigs, uniqueConfigs);
+    }
+
+    public long getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    public long getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    /**
+     * Get the number of moves in the solution that was found last
+     *
+     * @return - the depth of the solution, or -1 if no solution was found
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * An entry in the open queue, holding the configuration along with the number of moves it took to reach it and
+     *      the estimated total number of moves through it
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final Configuration config;
+        private final int moves;
+        private final int estimate;
+        private final long order;
+
+        private Entry(Configuration config, int moves, int estimate, long order) {
+            this.config = config;
+            this.moves = moves;
+            this.estimate = estimate;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (this.estimate != other.estimate) {
+                return Integer.compare(this.estimate, other.estimate);
+            }
+            return Long.compare(this.order, other.order);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * State store for configurations that are encoded into byte arrays. The keys are found through an open addressing
+ *      table of indexes, so no wrapper object is made for each key
+ *
+ * @author Giovanni Coppola
+ */
+class ByteStateStore implements StateStore {
+    /**
+     * Private members for the store
+     */
+    private static final float LOAD_FACTOR = 0.5f;
+    private final EncodableConfiguration decoder;
+    private byte[][] keys = new byte[16][];
+    private int[] hashes = new int[16];
+    private int[] parents = new int[16];
+    private int size = 0;
+
+    // Each slot holds the index of a key plus one, 0 is an empty slot
+    private int[] table = new int[32];
+
+    /**
+     * Create a new empty store
+     *
+     * @param decoder - the configuration used to decode the keys
+     */
+    ByteStateStore(EncodableConfiguration decoder) {
+        this.decoder = decoder;
+    }
+
+    @Override
+    public int add(EncodableConfiguration config, int parent) {
+        byte[] key = config.encode();
+        int hash = mix(Arrays.hashCode(key));
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        // Linear probing until either the key or an empty slot is found
+        while (table[slot] != 0) {
+            int index = table[slot] - 1;
+            if (hashes[index] == hash && Arrays.equals(keys[index], key)) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+            parents = Arrays.copyOf(parents, size * 2);
+        }
+        keys[size] = key;
+        hashes[size] = hash;
+        parents[size] = parent;
+        table[slot] = size + 1;
+        size++;
+        if (size > table.length * LOAD_FACTOR) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    @Override
+    public Configuration get(int index) {
+        return decoder.decode(keys[index]);
+    }
+
+    @Override
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Double the table and put every index back in, using the hashes that were saved when the keys were added
+     */
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+    }
+
+    /**
+     * Spread the bits of a hash code so keys that only differ in their last bytes do not land next to each other
+     *
+     * @param hash - the hash code to mix
+     * @return - the mixed hash code
+     */
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
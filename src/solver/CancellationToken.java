@@ -0,0 +1,25 @@
+package solver;
+
+/**
+ * A flag that can be set from any thread to ask a running solve to stop. The solvers check it before expanding each
+ *      configuration and return a cancelled result once it is set
+ *
+ * @author Giovanni Coppola
+ */
+public class CancellationToken {
+    /**
+     * Private members for the token
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * Ask every solve using this token to stop
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+}
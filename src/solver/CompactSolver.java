@@ -0,0 +1,96 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class finds a shortest path from a starting configuration to a solution with the same BFS as the solver, but
+ *      keeps every configuration it finds as an encoded key (a long if the puzzle fits in one, otherwise a byte
+ *      array) along with the index of its predecessor instead of keeping the configurations themselves.
+ * Keys are stored in the order they are found, which is also the BFS queue order, so the queue is just the index of
+ *      the next key to expand. A configuration is decoded when it is expanded and when the final path is built
+ *
+ * @author Giovanni Coppola
+ */
+public class CompactSolver {
+    /**
+     * Private members for the compact solver
+     */
+    private EncodableConfiguration startNode;
+    private long totalConfigs = 0;
+    private long uniqueConfigs = 0;
+    private int depth = -1;
+
+    /**
+     * Create a new instance of the compact solver
+     *
+     * @param startNode - the configuration to start the search from
+     */
+    public CompactSolver(EncodableConfiguration startNode) {
+        this.startNode = startNode;
+    }
+
+    /**
+     * Solver method that will conduct the BFS algorithm until the final node is reached
+     *
+     * @return - the list of configurations in the path order to the solution, empty if there is no solution
+     */
+    public List<Configuration> solver() {
+        StateStore store = startNode.fitsInLong() ? new LongStateStore(startNode) : new ByteStateStore(startNode);
+        store.add(startNode, -1);
+        totalConfigs++;
+
+        int finalIndex = -1;
+        int levelDepth = 0;
+        int levelEnd = 1;
+        // Everything before next has been expanded and everything after it is waiting in the queue
+        for (int next = 0; next < store.size(); next++) {
+            if (next == levelEnd) {
+                levelDepth++;
+                levelEnd = store.size();
+            }
+            Configuration current = next == 0 ? startNode : store.get(next);
+            uniqueConfigs++;
+            if (current.isSolution()) {
+                finalIndex = next;
+                depth = levelDepth;
+                uniqueConfigs++;
+                break;
+            }
+
+            for (Configuration nbr : current.getNeighbors()) {
+                store.add((EncodableConfiguration) nbr, next);
+                totalConfigs++;
+            }
+        }
+
+        // Decode the configurations on the path, walking back from the solution
+        List<Configuration> path = new ArrayList<>();
+        for (int index = finalIndex; index > 0; index = store.getParent(index)) {
+            path.add(store.get(index));
+        }
+        if (finalIndex >= 0) {
+            path.add(startNode);
+            Collections.reverse(path);
+        }
+        return path;
+    }
+
+    public long getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    public long getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    /**
+     * Get the number of moves in the solution that was found last
+     *
+     * @return - the depth of the solution, or -1 if no solution was found
+     */
+    public int getDepth() {
+        return depth;
+    }
+}
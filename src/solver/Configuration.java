@@ -1,6 +1,8 @@
 package solver;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Configuration abstraction for the solver algorithm
@@ -20,4 +22,58 @@ public interface Configuration {
     public boolean isSolution();
     public Collection<Configuration> getNeighbors();
 
+    /**
+     * Hand each neighbor to the visitor as it is made, in the same order as getNeighbors. Puzzles can override this
+     *      to skip building the collection, which the solver would throw away right after looping over it
+     *
+     * @param visitor - the consumer that is given each neighbor
+     */
+    public default void forEachNeighbor(Consumer<Configuration> visitor) {
+        for (Configuration nbr : getNeighbors()) {
+            visitor.accept(nbr);
+        }
+    }
+
+    /**
+     * Get an estimate of the number of moves left to reach a solution, used by the A* and IDA* solvers to decide
+     *      which configuration to expand next. The estimate must never be more than the real number of moves,
+     *      otherwise the path found might not be the shortest one. The default of 0 makes both solvers act like a
+     *      plain search
+     *
+     * @return - a lower bound on the number of moves to a solution
+     */
+    public default int getHeuristic() {
+        return 0;
+    }
+
+    /**
+     * Get the goal configuration for this puzzle if it can be built ahead of time. This is used by the bidirectional
+     *      search in the solver, puzzles that have more than one goal configuration should leave this as null
+     *
+     * @return - the goal configuration, or null if it is not known
+     */
+    public default Configuration getGoal() {
+        return null;
+    }
+
+    /**
+     * Check if the puzzle can find the configurations that reach a configuration in a single move. The bidirectional
+     *      search in the solver needs this as well as a goal from getGoal
+     *
+     * @return - true if getReverseNeighbors is implemented
+     */
+    public default boolean hasReverseNeighbors() {
+        return false;
+    }
+
+    /**
+     * Get the configurations that can reach this configuration in a single move. This only has to be implemented
+     *      by puzzles that return true from hasReverseNeighbors
+     *
+     * @return - the collection of configurations that have this configuration as a neighbor, empty by default
+     */
+    public default Collection<Configuration> getReverseNeighbors() {
+        return List.of();
+    }
+
 }
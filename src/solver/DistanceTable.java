@@ -0,0 +1,215 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A table of the number of moves from every configuration that can be reached from a start to the closest solution.
+ * The table is built once with a BFS forward from the start to find every configuration and the moves between them,
+ *      then a BFS backward from every solution at the same time over the reversed moves (retrograde analysis).
+ * After that, the distance of any configuration in the table is a lookup, and the next move toward a solution only
+ *      needs the neighbors of that one configuration, so hints do not have to run a new search
+ *
+ * @author Giovanni Coppola
+ */
+public class DistanceTable {
+    /**
+     * The distance of a configuration that can not reach a solution, or that is not in the table
+     */
+    public static final int UNSOLVABLE = -1;
+
+    /**
+     * Private members for the distance table
+     */
+    private final Map<Configuration, Integer> indices;
+    private final int[] distances;
+
+    /**
+     * Create a new distance table, use build to make one
+     *
+     * @param indices - the index of every configuration in the table
+     * @param distances - the distance of the configuration at each index
+     */
+    private DistanceTable(Map<Configuration, Integer> indices, int[] distances) {
+        this.indices = indices;
+        this.distances = distances;
+    }
+
+    /**
+     * Build the table for every configuration that can be reached from the start
+     *
+     * @param startNode - the configuration to start from
+     * @param limits - the limits for the search forward from the start, which has to visit every configuration
+     * @return - the table, or null if the limits stopped the search before every configuration was found
+     */
+    public static DistanceTable build(Configuration startNode, SolveLimits limits) {
+        long deadline = limits.deadline(System.nanoTime());
+
+        // Search forward, keeping the moves out of each configuration as a range of indices in one array
+        Enumerator enumerator = new Enumerator();
+        enumerator.add(startNode);
+        for (int next = 0; next < enumerator.states.size(); next++) {
+            if (limits.check(next, deadline) != null) {
+                return null;
+            }
+            enumerator.firstMove[next] = enumerator.moveCount;
+            enumerator.states.get(next).forEachNeighbor(enumerator);
+        }
+        int size = enumerator.states.size();
+        int[] firstMove = Arrays.copyOf(enumerator.firstMove, size + 1);
+        firstMove[size] = enumerator.moveCount;
+        int[] moves = enumerator.moves;
+
+        // Reverse the moves, so the configurations that lead into each configuration are a range of indices as well
+        int[] firstReverse = new int[size + 1];
+        for (int move = 0; move < enumerator.moveCount; move++) {
+            firstReverse[moves[move] + 1]++;
+        }
+        for (int index = 0; index < size; index++) {
+            firstReverse[index + 1] += firstReverse[index];
+        }
+        int[] reverse = new int[enumerator.moveCount];
+        int[] filled = Arrays.copyOf(firstReverse, size);
+        for (int index = 0; index < size; index++) {
+            for (int move = firstMove[index]; move < firstMove[index + 1]; move++) {
+                reverse[filled[moves[move]]++] = index;
+            }
+        }
+
+        // Search backward from every solution at once
+        int[] distances = new int[size];
+        Arrays.fill(distances, UNSOLVABLE);
+        int[] queue = new int[size];
+        int tail = 0;
+        for (int index = 0; index < size; index++) {
+            if (enumerator.states.get(index).isSolution()) {
+                distances[index] = 0;
+                queue[tail++] = index;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            for (int move = firstReverse[current]; move < firstReverse[current + 1]; move++) {
+                int previous = reverse[move];
+                if (distances[previous] == UNSOLVABLE) {
+                    distances[previous] = distances[current] + 1;
+                    queue[tail++] = previous;
+                }
+            }
+        }
+        return new DistanceTable(enumerator.indices, distances);
+    }
+
+    /**
+     * Check if a configuration was found when the table was built
+     *
+     * @param config - the configuration to look for
+     * @return - true if the configuration is in the table
+     */
+    public boolean contains(Configuration config) {
+        return indices.containsKey(config);
+    }
+
+    /**
+     * Get the number of moves from a configuration to the closest solution
+     *
+     * @param config - the configuration to look up
+     * @return - the number of moves, 0 for a solution, or UNSOLVABLE if no solution can be reached or the configuration
+     *      is not in the table
+     */
+    public int distance(Configuration config) {
+        Integer index = indices.get(config);
+        return index == null ? UNSOLVABLE : distances[index];
+    }
+
+    /**
+     * Check if a solution can be reached from a configuration
+     *
+     * @param config - the configuration to look up
+     * @return - true if the configuration is in the table and can reach a solution
+     */
+    public boolean isSolvable(Configuration config) {
+        return distance(config) != UNSOLVABLE;
+    }
+
+    /**
+     * Get the first neighbor of a configuration that is one move closer to a solution
+     *
+     * @param config - the configuration to move from
+     * @return - the neighbor, or null if the configuration is a solution, can not reach one or is not in the table
+     */
+    public Configuration nextStep(Configuration config) {
+        int distance = distance(config);
+        if (distance <= 0) {
+            return null;
+        }
+        for (Configuration nbr : config.getNeighbors()) {
+            if (distance(nbr) == distance - 1) {
+                return nbr;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Follow the next steps from a configuration all the way to a solution
+     *
+     * @param config - the configuration to start from
+     * @return - the shortest path from the configuration to a solution, or an empty list if no solution can be reached
+     *      or the configuration is not in the table
+     */
+    public List<Configuration> path(Configuration config) {
+        List<Configuration> path = new ArrayList<>();
+        if (isSolvable(config)) {
+            for (Configuration step = config; step != null; step = nextStep(step)) {
+                path.add(step);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Get the number of configurations in the table
+     *
+     * @return - the number of configurations that can be reached from the start
+     */
+    public int size() {
+        return distances.length;
+    }
+
+    /**
+     * Gives each configuration it is handed an index the first time it is seen and records the move to it from the
+     *      configuration being expanded, which is the one the last range in firstMove was started for
+     */
+    private static class Enumerator implements Consumer<Configuration> {
+        private final Map<Configuration, Integer> indices = new HashMap<>();
+        private final List<Configuration> states = new ArrayList<>();
+        private int[] firstMove = new int[16];
+        private int[] moves = new int[16];
+        private int moveCount = 0;
+
+        private int add(Configuration config) {
+            Integer index = indices.putIfAbsent(config, states.size());
+            if (index != null) {
+                return index;
+            }
+            states.add(config);
+            if (states.size() > firstMove.length) {
+                firstMove = Arrays.copyOf(firstMove, firstMove.length << 1);
+            }
+            return states.size() - 1;
+        }
+
+        @Override
+        public void accept(Configuration nbr) {
+            if (moveCount == moves.length) {
+                moves = Arrays.copyOf(moves, moves.length << 1);
+            }
+            moves[moveCount++] = add(nbr);
+        }
+    }
+}
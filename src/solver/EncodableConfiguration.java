@@ -0,0 +1,56 @@
+package solver;
+
+/**
+ * Optional abstraction for configurations that can turn themselves into a compact key and back.
+ * The compact solver only keeps these keys (along with the index of the predecessor) instead of the configurations,
+ *      so a configuration only has to exist while it is being expanded or when the final path is built
+ *
+ * @author Giovanni Coppola
+ */
+public interface EncodableConfiguration extends Configuration {
+
+    /**
+     * Encode this configuration into a small array of bytes. Two configurations must have the same bytes if, and
+     *      only if, they are equal
+     *
+     * @return - the encoded configuration
+     */
+    public byte[] encode();
+
+    /**
+     * Build the configuration that was encoded into the given bytes. Anything that is the same for every
+     *      configuration of the puzzle (the board size, the goal, ...) is taken from this configuration
+     *
+     * @param key - bytes that were returned by encode for a configuration of the same puzzle
+     * @return - the decoded configuration
+     */
+    public Configuration decode(byte[] key);
+
+    /**
+     * Check if every configuration of this puzzle can be packed into a single long
+     *
+     * @return - true if encodeLong and decodeLong can be used
+     */
+    public default boolean fitsInLong() {
+        return false;
+    }
+
+    /**
+     * Pack this configuration into a long. Only called when fitsInLong is true
+     *
+     * @return - the packed configuration
+     */
+    public default long encodeLong() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can not be packed into a long");
+    }
+
+    /**
+     * Build the configuration that was packed into the given long. Only called when fitsInLong is true
+     *
+     * @param key - a value that was returned by encodeLong for a configuration of the same puzzle
+     * @return - the decoded configuration
+     */
+    public default Configuration decodeLong(long key) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can not be packed into a long");
+    }
+}
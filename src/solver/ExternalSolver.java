@@ -0,0 +1,573 @@
+package solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * This class finds a shortest path from a starting configuration to a solution with a BFS that keeps its levels and
+ *      its visited configurations on disk instead of in memory, so the size of the search is limited by the disk and
+ *      not the heap. The configurations are stored as fixed width keys (see EncodableConfiguration): a long for the
+ *      puzzles that fit in one, otherwise the bytes of encode, which must have the same length for every
+ *      configuration of the puzzle. Longs are ordered as numbers and bytes are ordered as unsigned bytes.
+ * Each level is a file of sorted keys that is read through memory mapped windows. Mapping a window for writing
+ *      makes the file longer than what was written, and a file can not be cut back while it is mapped on every
+ *      platform, so each file starts with the number of keys in it. The neighbors of a level are
+ *      collected in a fixed size buffer that is sorted and written out as a run whenever it fills up, then the runs
+ *      are merged together and against the file of every key visited so far to remove the duplicates, which gives
+ *      the next level. Predecessors are not stored, the path is rebuilt at the end by searching each earlier level
+ *      for a configuration that has the next one on the path as a neighbor
+ *
+ * @author Giovanni Coppola
+ */
+public class ExternalSolver {
+    /**
+     * Private members for the external solver
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private static final long WINDOW_SIZE = 1 << 20;
+    private static final long HEADER_SIZE = Long.BYTES;
+    private EncodableConfiguration startNode;
+    private Path directory;
+    private int bufferSize;
+    private boolean packed;
+    private int width;
+    private long totalConfigs = 0;
+    private long uniqueConfigs = 0;
+    private int depth = -1;
+    private int levelsSearched = 0;
+    private List<Path> leftoverFiles = new ArrayList<>();
+
+    /**
+     * Create a new instance of the external solver that keeps its files in a new temporary directory
+     *
+     * @param startNode - the configuration to start the search from
+     */
+    public ExternalSolver(EncodableConfiguration startNode) {
+        this(startNode, null, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a new instance of the external solver
+     *
+     * @param startNode - the configuration to start the search from
+     * @param directory - the directory to keep the level files in, or null for a new temporary directory
+     * @param bufferSize - the number of keys held in memory before they are sorted and written out as a run
+     */
+    public ExternalSolver(EncodableConfiguration startNode, Path directory, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be positive: " + bufferSize);
+        }
+        this.startNode = startNode;
+        this.directory = directory;
+        this.bufferSize = bufferSize;
+        this.packed = startNode.fitsInLong();
+        this.width = packed ? Long.BYTES : startNode.encode().length;
+        if (width < 1) {
+            throw new IllegalArgumentException("The external solver needs configurations that encode to bytes");
+        }
+    }
+
+    /**
+     * Solver method that will conduct the external BFS until the final node is reached. The files made for the
+     *      search are deleted before returning, and the ones that could not be are kept in getLeftoverFiles
+     *
+     * @return - the list of configurations in the path order to the solution, empty if there is no solution
+     */
+    public List<Configuration> solver() {
+        List<Path> files = new ArrayList<>();
+        leftoverFiles = new ArrayList<>();
+        Path workDirectory = null;
+        try {
+            workDirectory = directory == null ? Files.createTempDirectory("bfs-levels") : directory;
+            List<Path> levels = new ArrayList<>();
+
+            // The first level and the visited file only hold the start
+            Path level = newFile(workDirectory, files, "level-0");
+            Path visited = newFile(workDirectory, files, "visited-0");
+            try (KeyWriter levelWriter = writer(level); KeyWriter visitedWriter = writer(visited)) {
+                write(levelWriter, startNode);
+                write(visitedWriter, startNode);
+            }
+            levels.add(level);
+            totalConfigs++;
+
+            Configuration solution = null;
+            while (solution == null && keyCount(level) > 0) {
+                List<Path> runs = new ArrayList<>();
+                RunBuffer buffer = new RunBuffer();
+
+                // Expand every configuration in the level, writing the neighbors out in sorted runs
+                try (KeyReader reader = reader(level)) {
+                    while (reader.hasNext()) {
+                        Configuration current = next(reader);
+                        uniqueConfigs++;
+                        if (current.isSolution()) {
+                            solution = current;
+                            depth = levels.size() - 1;
+                            uniqueConfigs++;
+                            break;
+                        }
+                        for (Configuration nbr : current.getNeighbors()) {
+                            totalConfigs++;
+                            if (buffer.isFull()) {
+                                runs.add(buffer.writeRun(workDirectory, files));
+                            }
+                            buffer.add((EncodableConfiguration) nbr);
+                        }
+                    }
+                }
+                levelsSearched++;
+                if (solution != null) {
+                    break;
+                }
+                if (!buffer.isEmpty()) {
+                    runs.add(buffer.writeRun(workDirectory, files));
+                }
+
+                // Merge the runs against everything visited so far to get the next level and the new visited file
+                int number = levels.size();
+                Path nextLevel = newFile(workDirectory, files, "level-" + number);
+                Path nextVisited = newFile(workDirectory, files, "visited-" + number);
+                mergeLevel(runs, visited, nextLevel, nextVisited);
+                for (Path run : runs) {
+                    delete(files, run);
+                }
+                delete(files, visited);
+                visited = nextVisited;
+                level = nextLevel;
+                levels.add(level);
+            }
+
+            return solution != null ? constructPath(levels, solution) : new ArrayList<>();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (Path file : new ArrayList<>(files)) {
+                delete(files, file);
+            }
+            if (directory == null && workDirectory != null) {
+                delete(files, workDirectory);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the path by walking back through the levels. For each level the configuration on the path is the first
+     *      one in that level that has the next configuration on the path as a neighbor
+     *
+     * @param levels - the level files, level 0 being the start
+     * @param solution - the solution that was found, which is in the last level
+     * @return - the path from the start to the solution
+     */
+    private List<Configuration> constructPath(List<Path> levels, Configuration solution) throws IOException {
+        List<Configuration> path = new ArrayList<>();
+        Configuration child = solution;
+        path.add(levels.size() == 1 ? startNode : child);
+        for (int number = levels.size() - 2; number >= 0; number--) {
+            Configuration parent = null;
+            try (KeyReader reader = reader(levels.get(number))) {
+                while (parent == null && reader.hasNext()) {
+                    Configuration candidate = next(reader);
+                    for (Configuration nbr : candidate.getNeighbors()) {
+                        if (nbr.equals(child)) {
+                            parent = candidate;
+                            break;
+                        }
+                    }
+                }
+            }
+            child = parent;
+            path.add(number == 0 ? startNode : parent);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Merge the sorted runs together, dropping duplicates and any key that was already visited. The keys that are
+     *      left are written to the next level, and every key is written to the new visited file
+     *
+     * @param runs - the sorted run files of the neighbors of the current level
+     * @param visited - the sorted file of every key visited so far
+     * @param nextLevel - the file to write the next level to
+     * @param nextVisited - the file to write every visited key to
+     */
+    private void mergeLevel(List<Path> runs, Path visited, Path nextLevel, Path nextVisited) throws IOException {
+        List<KeyReader> readers = new ArrayList<>();
+        try (KeyReader visitedReader = reader(visited);
+             KeyWriter levelWriter = writer(nextLevel);
+             KeyWriter visitedWriter = writer(nextVisited)) {
+            // Queue of the readers ordered by their next key
+            PriorityQueue<KeyReader> heap = new PriorityQueue<>(KeyReader::compareHead);
+            for (Path run : runs) {
+                KeyReader reader = reader(run);
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    heap.add(reader);
+                }
+            }
+
+            while (!heap.isEmpty()) {
+                KeyReader smallest = heap.remove();
+                // Each run has no duplicates, so the same key can only be next in the other runs
+                while (!heap.isEmpty() && heap.peek().compareHead(smallest) == 0) {
+                    KeyReader same = heap.remove();
+                    same.skip();
+                    if (same.hasNext()) {
+                        heap.add(same);
+                    }
+                }
+
+                // Copy over the visited keys that come first, then check if this key was one of them
+                while (visitedReader.hasNext() && visitedReader.compareHead(smallest) < 0) {
+                    visitedWriter.copy(visitedReader);
+                    visitedReader.skip();
+                }
+                if (!visitedReader.hasNext() || visitedReader.compareHead(smallest) != 0) {
+                    levelWriter.copy(smallest);
+                    visitedWriter.copy(smallest);
+                }
+                smallest.skip();
+                if (smallest.hasNext()) {
+                    heap.add(smallest);
+                }
+            }
+            while (visitedReader.hasNext()) {
+                visitedWriter.copy(visitedReader);
+                visitedReader.skip();
+            }
+        } finally {
+            for (KeyReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Read the next configuration of a file
+     *
+     * @param reader - the reader of the file
+     * @return - the decoded configuration
+     */
+    private Configuration next(KeyReader reader) {
+        return packed ? startNode.decodeLong(reader.nextLong()) : startNode.decode(reader.nextBytes());
+    }
+
+    /**
+     * Write a configuration to the end of a file
+     *
+     * @param writer - the writer of the file
+     * @param config - the configuration to write
+     */
+    private void write(KeyWriter writer, EncodableConfiguration config) throws IOException {
+        if (packed) {
+            writer.write(config.encodeLong());
+        } else {
+            writer.write(config.encode());
+        }
+    }
+
+    private KeyReader reader(Path file) throws IOException {
+        return new KeyReader(file, width, packed);
+    }
+
+    private KeyWriter writer(Path file) throws IOException {
+        return new KeyWriter(file, width);
+    }
+
+    private static Path newFile(Path workDirectory, List<Path> files, String prefix) throws IOException {
+        Path file = Files.createTempFile(workDirectory, prefix + "-", ".bin");
+        files.add(file);
+        return file;
+    }
+
+    private long keyCount(Path file) throws IOException {
+        try (KeyReader reader = reader(file)) {
+            return reader.count;
+        }
+    }
+
+    /**
+     * Delete a file made for the search. A file that can not be deleted is kept in the leftover files, which happens
+     *      on platforms that will not delete a file while a window of it is still mapped (a window is only unmapped
+     *      once it is collected)
+     *
+     * @param files - the list of files made for the search
+     * @param file - the file to delete
+     */
+    private void delete(List<Path> files, Path file) {
+        files.remove(file);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            leftoverFiles.add(file);
+        }
+    }
+
+    /**
+     * Get the window size for keys of a width, the largest multiple of the width that fits in WINDOW_SIZE, so a key
+     *      never spans two windows
+     *
+     * @param width - the number of bytes in a key
+     * @return - the number of bytes to map at a time
+     */
+    private static long windowSize(int width) {
+        return Math.max(1, WINDOW_SIZE / width) * width;
+    }
+
+    public long getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    public long getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    /**
+     * Get the number of moves in the solution that was found last
+     *
+     * @return - the depth of the solution, or -1 if no solution was found
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Get the number of levels that were fully or partly expanded by the last search
+     *
+     * @return - the number of levels searched
+     */
+    public int getLevelsSearched() {
+        return levelsSearched;
+    }
+
+    /**
+     * Get the files and directory made by the last search that could not be deleted, for the caller to remove later
+     *
+     * @return - the paths that are left, empty if everything was deleted
+     */
+    public List<Path> getLeftoverFiles() {
+        return Collections.unmodifiableList(leftoverFiles);
+    }
+
+    /**
+     * Holds the keys of the neighbors in memory until there are enough of them to sort and write out as a run. Longs
+     *      are kept in a long array, so the packed keys never make an object
+     */
+    private class RunBuffer {
+        private final long[] longKeys = packed ? new long[bufferSize] : null;
+        private final byte[][] byteKeys = packed ? null : new byte[bufferSize][];
+        private int size = 0;
+
+        private boolean isFull() {
+            return size == bufferSize;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void add(EncodableConfiguration config) {
+            if (packed) {
+                longKeys[size++] = config.encodeLong();
+            } else {
+                byteKeys[size++] = config.encode();
+            }
+        }
+
+        /**
+         * Sort the buffer, remove the duplicates and write it to a new run file, which empties the buffer
+         *
+         * @param workDirectory - the directory to make the file in
+         * @param files - the list of files made for the search
+         * @return - the run file
+         */
+        private Path writeRun(Path workDirectory, List<Path> files) throws IOException {
+            Path run = newFile(workDirectory, files, "run");
+            try (KeyWriter writer = writer(run)) {
+                if (packed) {
+                    Arrays.sort(longKeys, 0, size);
+                    for (int index = 0; index < size; index++) {
+                        if (index == 0 || longKeys[index] != longKeys[index - 1]) {
+                            writer.write(longKeys[index]);
+                        }
+                    }
+                } else {
+                    Arrays.sort(byteKeys, 0, size, Arrays::compareUnsigned);
+                    for (int index = 0; index < size; index++) {
+                        if (index == 0 || !Arrays.equals(byteKeys[index], byteKeys[index - 1])) {
+                            writer.write(byteKeys[index]);
+                        }
+                    }
+                    Arrays.fill(byteKeys, 0, size, null);
+                }
+            }
+            size = 0;
+            return run;
+        }
+    }
+
+    /**
+     * Reads the keys of a file in order through memory mapped windows, stopping at the number of keys in the header
+     */
+    private static class KeyReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final int width;
+        private final boolean packed;
+        private final long count;
+        private final long size;
+        private long position = HEADER_SIZE;
+        private MappedByteBuffer window;
+
+        private KeyReader(Path file, int width, boolean packed) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.width = width;
+            this.packed = packed;
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES);
+            channel.read(header, 0);
+            this.count = header.hasRemaining() ? 0 : header.getLong(0);
+            this.size = HEADER_SIZE + count * width;
+        }
+
+        private boolean hasNext() {
+            return position < size;
+        }
+
+        /**
+         * Map the window that holds the next key if it is not mapped yet
+         *
+         * @return - the index of the next key in the window
+         */
+        private int head() {
+            if (window == null || !window.hasRemaining()) {
+                try {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(windowSize(width), size - position));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return window.position();
+        }
+
+        /**
+         * Compare the next key of this file with the next key of another file
+         *
+         * @param other - the reader of the other file
+         * @return - negative, zero or positive if this key comes before, is the same as or comes after the other
+         */
+        private int compareHead(KeyReader other) {
+            int index = head();
+            int otherIndex = other.head();
+            if (packed) {
+                return Long.compare(window.getLong(index), other.window.getLong(otherIndex));
+            }
+            for (int offset = 0; offset < width; offset++) {
+                int result = Byte.compareUnsigned(window.get(index + offset), other.window.get(otherIndex + offset));
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        }
+
+        private long nextLong() {
+            int index = head();
+            long value = window.getLong(index);
+            skip();
+            return value;
+        }
+
+        private byte[] nextBytes() {
+            byte[] key = new byte[width];
+            int index = head();
+            window.get(index, key);
+            skip();
+            return key;
+        }
+
+        private void skip() {
+            head();
+            window.position(window.position() + width);
+            position += width;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes keys to the end of a file through memory mapped windows, putting the number of keys written in the
+     *      header when it is closed
+     */
+    private static class KeyWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final int width;
+        private final byte[] copied;
+        private long position = HEADER_SIZE;
+        private MappedByteBuffer window;
+
+        private KeyWriter(Path file, int width) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.width = width;
+            this.copied = new byte[width];
+        }
+
+        /**
+         * Map the window that the next key goes in if it is not mapped yet
+         *
+         * @return - the window, positioned at the next key
+         */
+        private MappedByteBuffer next() throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                window = channel.map(FileChannel.MapMode.READ_WRITE, position, windowSize(width));
+            }
+            position += width;
+            return window;
+        }
+
+        private void write(long key) throws IOException {
+            next().putLong(key);
+        }
+
+        private void write(byte[] key) throws IOException {
+            if (key.length != width) {
+                throw new IllegalStateException("Every key of the puzzle must have " + width + " bytes, not " +
+                        key.length);
+            }
+            next().put(key);
+        }
+
+        /**
+         * Write the next key of a reader, which is not moved past it
+         *
+         * @param reader - the reader of the file to copy from
+         */
+        private void copy(KeyReader reader) throws IOException {
+            int index = reader.head();
+            reader.window.get(index, copied);
+            next().put(copied);
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES).putLong(0, (position - HEADER_SIZE) / width);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package solver;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An array backed ring buffer that is used as the BFS queue by the solver.
+ * Adding and removing are both O(1) and no node objects are created per element, the backing array only grows
+ *      (by doubling) when the frontier is full.
+ * The frontier also keeps level markers so the solver knows the depth of the configuration that was just removed
+ *
+ * @author Giovanni Coppola
+ */
+class Frontier<E> {
+    /**
+     * Private members for the frontier
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    private Object[] elements;
+    private int head = 0;
+    private int size = 0;
+    private int depth = -1;
+    private int remainingInLevel = 0;
+    private int nextLevelSize = 0;
+
+    /**
+     * Create a new empty frontier
+     */
+    Frontier() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new empty frontier with room for the given number of elements before it has to grow
+     *
+     * @param initialCapacity - the starting size of the backing array
+     */
+    Frontier(int initialCapacity) {
+        // Round the capacity up to a power of two so the index can be wrapped with a mask
+        this.elements = new Object[Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1];
+    }
+
+    /**
+     * Add an element to the tail of the frontier. The element will be part of the level after the one that is
+     *      currently being removed
+     *
+     * @param element - the element to add
+     */
+    void add(E element) {
+        if (this.size == this.elements.length) {
+            grow();
+        }
+        this.elements[(this.head + this.size) & (this.elements.length - 1)] = element;
+        this.size++;
+        this.nextLevelSize++;
+    }
+
+    /**
+     * Remove the element at the head of the frontier
+     *
+     * @return - the element that was removed
+     */
+    @SuppressWarnings("unchecked")
+    E remove() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("The frontier is empty");
+        }
+        // Move on to the next level once every element of the current one has been removed
+        if (this.remainingInLevel == 0) {
+            this.depth++;
+            this.remainingInLevel = this.nextLevelSize;
+            this.nextLevelSize = 0;
+        }
+        this.remainingInLevel--;
+
+        E element = (E) this.elements[this.head];
+        // Clear the slot so the removed element can be garbage collected
+        this.elements[this.head] = null;
+        this.head = (this.head + 1) & (this.elements.length - 1);
+        this.size--;
+        return element;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Get the depth (number of moves from the start) of the element that was removed last
+     *
+     * @return - the depth of the last removed element, or -1 if nothing has been removed yet
+     */
+    int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Check if the element that was removed last is the final element of its level
+     *
+     * @return - true if the next element removed will be from a deeper level
+     */
+    boolean isEndOfLevel() {
+        return this.remainingInLevel == 0;
+    }
+
+    /**
+     * Double the size of the backing array, unwrapping the elements so the head is back at index 0
+     */
+    private void grow() {
+        Object[] larger = new Object[this.elements.length << 1];
+        int firstPart = this.elements.length - this.head;
+        System.arraycopy(this.elements, this.head, larger, 0, firstPart);
+        System.arraycopy(this.elements, 0, larger, firstPart, this.head);
+        this.elements = larger;
+        this.head = 0;
+    }
+}
@@ -0,0 +1,210 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Works out hints for a puzzle on a background thread so asking for a hint never waits on a search.
+ * Each time the player's configuration changes, the model hands it to update. If the configuration is on the path
+ *      that was already found, the path is kept, otherwise the search that is running is cancelled and a new one is
+ *      started from the configuration. A search first tries to build a distance table for the whole puzzle within
+ *      the table limits (see DistanceTable), which answers every later search right away, and falls back to an A*
+ *      search from the configuration if the puzzle is too big for that.
+ * The listener is told when a search finishes, on the background thread
+ *
+ * @author Giovanni Coppola
+ */
+public class HintService {
+    /**
+     * Private members for the hint service. The table is only used by the background thread
+     */
+    private final ExecutorService executor;
+    private final SolveLimits tableLimits;
+    private Runnable listener;
+    private DistanceTable table;
+    private boolean tableTooBig;
+    private Configuration searchStart;
+    private CancellationToken token;
+    private Configuration resultStart;
+    private SolveResult result;
+
+    /**
+     * Create a new hint service with its own background thread, which does not keep the program running
+     *
+     * @param tableLimits - the limits for building the distance table of a puzzle
+     */
+    public HintService(SolveLimits tableLimits) {
+        this.tableLimits = tableLimits;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hint-service");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Set what to run when a search finishes
+     *
+     * @param listener - the code to run on the background thread, or null for nothing
+     */
+    public synchronized void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Forget everything about the last puzzle and start searching a new one
+     *
+     * @param start - the configuration of the new puzzle, which must not be changed afterwards
+     */
+    public synchronized void reset(Configuration start) {
+        reset(start, null);
+    }
+
+    /**
+     * Forget everything about the last puzzle and use a result that is already known for the new one, such as one
+     *      from the solution cache
+     *
+     * @param start - the configuration of the new puzzle, which must not be changed afterwards
+     * @param known - the result of solving the puzzle from the start, or null to search for it
+     */
+    public synchronized void reset(Configuration start, SolveResult known) {
+        cancel();
+        // The table belongs to the background thread, so it is dropped there after anything already running
+        executor.execute(() -> {
+            table = null;
+            tableTooBig = false;
+        });
+        if (known == null) {
+            search(start);
+        } else {
+            token = null;
+            result = known;
+            resultStart = start;
+        }
+    }
+
+    /**
+     * Tell the service where the player is now. Nothing happens if the configuration is on the path that was found
+     *      or is where the running search started from
+     *
+     * @param current - the configuration the player is at, which must not be changed afterwards
+     */
+    public synchronized void update(Configuration current) {
+        if (current.equals(searchStart) || current.equals(resultStart) || indexOnPath(current) >= 0) {
+            return;
+        }
+        cancel();
+        search(current);
+    }
+
+    /**
+     * Get the result of the search from the player's configuration
+     *
+     * @param current - the configuration the player is at
+     * @return - the result with the path starting at the configuration, or null if it is still being searched
+     */
+    public synchronized SolveResult resultFor(Configuration current) {
+        int index = indexOnPath(current);
+        if (index >= 0) {
+            List<Configuration> path = result.getPath();
+            return new SolveResult(result.getStatus(), new ArrayList<>(path.subList(index, path.size())),
+                    result.getDepth() - index, result.getTotalConfigs(), result.getUniqueConfigs());
+        }
+        if (current.equals(resultStart)) {
+            // There is no path to look in, the search from here found no solution
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * Check if a search is running
+     *
+     * @return - true if the background thread is working on a search
+     */
+    public synchronized boolean isSearching() {
+        return searchStart != null;
+    }
+
+    /**
+     * Cancel the running search and stop the background thread
+     */
+    public synchronized void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start a search on the background thread
+     *
+     * @param start - the configuration to search from
+     */
+    private void search(Configuration start) {
+        CancellationToken searchToken = new CancellationToken();
+        this.token = searchToken;
+        this.searchStart = start;
+        this.resultStart = null;
+        this.result = null;
+        executor.execute(() -> {
+            SolveResult found = find(start, searchToken);
+            Runnable toNotify;
+            synchronized (this) {
+                if (searchToken != token || found.getStatus() == SolveResult.Status.CANCELLED) {
+                    // A newer search replaced this one, so its result is not wanted
+                    return;
+                }
+                result = found;
+                resultStart = start;
+                searchStart = null;
+                toNotify = listener;
+            }
+            // The listener is run without holding the lock so it can call back into the service
+            if (toNotify != null) {
+                toNotify.run();
+            }
+        });
+    }
+
+    /**
+     * Find the path from a configuration, using the distance table if the puzzle is small enough for one
+     *
+     * @param start - the configuration to search from
+     * @param searchToken - the token that cancels this search
+     * @return - the result of the search
+     */
+    private SolveResult find(Configuration start, CancellationToken searchToken) {
+        if (!tableTooBig && (table == null || !table.contains(start))) {
+            table = DistanceTable.build(start, new SolveLimits(tableLimits.getTimeout(), tableLimits.getMaxNodes(),
+                    searchToken));
+            tableTooBig = table == null && !searchToken.isCancelled();
+        }
+        if (table != null) {
+            List<Configuration> path = table.path(start);
+            return new SolveResult(path.isEmpty() ? SolveResult.Status.UNSOLVABLE : SolveResult.Status.SOLVED, path,
+                    path.size() - 1, table.size(), table.size());
+        }
+        return new AStarSolver(start).solve(new SolveLimits(null, 0, searchToken));
+    }
+
+    /**
+     * Cancel the running search, if there is one
+     */
+    private void cancel() {
+        if (token != null) {
+            token.cancel();
+        }
+        searchStart = null;
+    }
+
+    /**
+     * Find a configuration on the path that was found
+     *
+     * @param current - the configuration to look for
+     * @return - the index of the configuration on the path, or -1 if it is not on it or there is no path yet
+     */
+    private int indexOnPath(Configuration current) {
+        return result == null ? -1 : result.getPath().indexOf(current);
+    }
+}
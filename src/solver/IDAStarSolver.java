@@ -0,0 +1,115 @@
+package solver;
+
+import java.util.*;
+
+/**
+ * This class finds a shortest path from a starting configuration to a solution using iterative deepening A*.
+ * It does a depth first search that is cut off once the moves taken plus the heuristic go over a bound, and raises
+ *      the bound to the smallest value that was cut off until a solution is found. Only the current path is kept in
+ *      memory, so it can search much deeper than the BFS and A* solvers before running out of memory
+ *
+ * @author Giovanni Coppola
+ */
+public class IDAStarSolver {
+    /**
+     * Private members for the IDA* solver
+     */
+    private static final int FOUND = -1;
+    private Configuration startNode;
+    private long totalConfigs = 0;
+    private long uniqueConfigs = 0;
+    private int depth = -1;
+
+    // The configurations on the path currently being searched, in order and as a set to stop cycles
+    private List<Configuration> path;
+    private Set<Configuration> onPath;
+
+    /**
+     * Create a new instance of the IDA* solver
+     *
+     * @param startNode - the configuration to start the search from
+     */
+    public IDAStarSolver(Configuration startNode) {
+        this.startNode = startNode;
+    }
+
+    /**
+     * Solver method that will conduct the IDA* search until the final node is reached or there is nothing left to
+     *      search. Puzzles with a finite number of configurations always finish, even when they have no solution
+     *
+     * @return - the list of configurations in the path order to the solution, empty if there is no solution
+     */
+    public List<Configuration> solver() {
+        path = new ArrayList<>();
+        onPath = new HashSet<>();
+        path.add(startNode);
+        onPath.add(startNode);
+        totalConfigs++;
+
+        int bound = startNode.getHeuristic();
+        while (true) {
+            int next = search(0, bound);
+            if (next == FOUND) {
+                depth = path.size() - 1;
+                return path;
+            }
+            if (next == Integer.MAX_VALUE) {
+                // Nothing was cut off by the bound, so every reachable configuration was searched
+                return new ArrayList<>();
+            }
+            bound = next;
+        }
+    }
+
+    /**
+     * Depth first search from the last configuration on the path
+     *
+     * @param moves - the number of moves taken to reach the last configuration on the path
+     * @param bound - the largest estimated total that will be searched in this iteration
+     * @return - FOUND if a solution is on the path, otherwise the smallest estimated total that went over the bound
+     */
+    private int search(int moves, int bound) {
+        Configuration current = path.get(path.size() - 1);
+        int estimate = moves + current.getHeuristic();
+        if (estimate > bound) {
+            return estimate;
+        }
+        uniqueConfigs++;
+        if (current.isSolution()) {
+            return FOUND;
+        }
+
+        int smallest = Integer.MAX_VALUE;
+        for (Configuration nbr : current.getNeighbors()) {
+            totalConfigs++;
+            if (onPath.add(nbr)) {
+                path.add(nbr);
+                int result = search(moves + 1, bound);
+                if (result == FOUND) {
+                    return FOUND;
+                }
+                smallest = Math.min(smallest, result);
+                path.remove(path.size() - 1);
+                onPath.remove(nbr);
+            }
+        }
+        return smallest;
+    }
+
+    public long getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    public long getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    /**
+     * Get the number of moves in the solution that was found last
+     *
+     * @return - the depth of the solution, or -1 if no solution was found
+     */
+    public int getDepth() {
+        return depth;
+    }
+}
@@ -0,0 +1,227 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from long keys to int values that stores its entries in flat arrays using open addressing with linear
+ *      probing, so no objects are made for the keys, the values or the entries.
+ * A key of 0 marks an empty slot in the arrays, so the entry for the key 0 (if there is one) is kept on its own
+ *
+ * @author Giovanni Coppola
+ */
+public class LongIntHashMap {
+    /**
+     * Private members for the map
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private final float loadFactor;
+    private final int missingValue;
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int resizeAt;
+    private int size = 0;
+    private boolean hasZeroKey = false;
+    private int zeroValue;
+
+    /**
+     * Create a new empty map that returns -1 for missing keys
+     */
+    public LongIntHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, -1);
+    }
+
+    /**
+     * Create a new empty map
+     *
+     * @param expectedSize - the number of entries the map should hold before it has to grow
+     * @param loadFactor - how full the arrays can get before they are doubled, between 0 and 1 (exclusive)
+     * @param missingValue - the value returned by get and putIfAbsent when a key is not in the map
+     */
+    public LongIntHashMap(int expectedSize, float loadFactor, int missingValue) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("The load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        this.missingValue = missingValue;
+        // Use the smallest power of two that can hold the expected entries without going over the load factor
+        long wanted = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        int capacity = 2;
+        while (capacity < wanted && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Get the value for a key
+     *
+     * @param key - the key to look up
+     * @return - the value for the key, or the missing value if the key is not in the map
+     */
+    public int get(long key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : missingValue;
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    /**
+     * Check if a key is in the map
+     *
+     * @param key - the key to look for
+     * @return - true if the key is in the map
+     */
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Set the value for a key, replacing the old value if the key was already in the map
+     *
+     * @param key - the key to set
+     * @param value - the value for the key
+     * @return - the old value, or the missing value if the key was not in the map
+     */
+    public int put(long key, int value) {
+        return insert(key, value, true);
+    }
+
+    /**
+     * Set the value for a key only if the key is not already in the map
+     *
+     * @param key - the key to set
+     * @param value - the value for the key
+     * @return - the value already in the map, or the missing value if the key was added
+     */
+    public int putIfAbsent(long key, int value) {
+        return insert(key, value, false);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove every entry, keeping the arrays at their current size
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    /**
+     * Find the slot for a key, or the empty slot where it would go, and set the value there if needed
+     *
+     * @param key - the key to set
+     * @param value - the value for the key
+     * @param replace - true to replace the value of a key that is already in the map
+     * @return - the old value, or the missing value if the key was added
+     */
+    private int insert(long key, int value, boolean replace) {
+        if (key == 0) {
+            if (hasZeroKey) {
+                int old = zeroValue;
+                if (replace) {
+                    zeroValue = value;
+                }
+                return old;
+            }
+            hasZeroKey = true;
+            zeroValue = value;
+            size++;
+            return missingValue;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                int old = values[slot];
+                if (replace) {
+                    values[slot] = value;
+                }
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size > resizeAt) {
+            resize();
+        }
+        return missingValue;
+    }
+
+    /**
+     * Double the arrays and put every entry back in
+     */
+    private void resize() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("The map can not hold more than " + size + " entries");
+        }
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(keys.length << 1);
+        for (int index = 0; index < oldKeys.length; index++) {
+            if (oldKeys[index] != 0) {
+                int slot = slot(oldKeys[index]);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[index];
+                values[slot] = oldValues[index];
+            }
+        }
+    }
+
+    /**
+     * Make new empty arrays
+     *
+     * @param capacity - the number of slots, a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        // Always leave at least one slot empty so probing for a missing key ends
+        resizeAt = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    /**
+     * Get the first slot to probe for a key, mixing the bits so keys that are close together are spread out
+     *
+     * @param key - the key to find the slot for
+     * @return - the index of the slot
+     */
+    private int slot(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
@@ -0,0 +1,59 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * State store for configurations that fit in a single long. The keys and parents are kept in flat arrays and the
+ *      index of each key is found through a primitive hash map, so nothing is boxed
+ *
+ * @author Giovanni Coppola
+ */
+class LongStateStore implements StateStore {
+    /**
+     * Private members for the store
+     */
+    private final EncodableConfiguration decoder;
+    private final LongIntHashMap indexes = new LongIntHashMap();
+    private long[] keys = new long[16];
+    private int[] parents = new int[16];
+    private int size = 0;
+
+    /**
+     * Create a new empty store
+     *
+     * @param decoder - the configuration used to decode the keys
+     */
+    LongStateStore(EncodableConfiguration decoder) {
+        this.decoder = decoder;
+    }
+
+    @Override
+    public int add(EncodableConfiguration config, int parent) {
+        long key = config.encodeLong();
+        if (indexes.putIfAbsent(key, size) != -1) {
+            return -1;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            parents = Arrays.copyOf(parents, size * 2);
+        }
+        keys[size] = key;
+        parents[size] = parent;
+        return size++;
+    }
+
+    @Override
+    public Configuration get(int index) {
+        return decoder.decodeLong(keys[index]);
+    }
+
+    @Override
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
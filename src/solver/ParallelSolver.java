@@ -0,0 +1,205 @@
+package solver;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class finds a shortest path from a starting configuration to a solution using a level by level BFS where the
+ *      neighbors of every configuration in a level are found in parallel on a fork join pool.
+ * The path returned is always the same one that the single threaded solver would return: every new configuration is
+ *      claimed through a concurrent map by the configuration that comes first in the level, and the next level is
+ *      put in the same order the single threaded queue would have had
+ *
+ * @author Giovanni Coppola
+ */
+public class ParallelSolver {
+    /**
+     * Private members for the parallel solver
+     */
+    private static final int SPLIT_THRESHOLD = 16;
+    private Configuration startNode;
+    private ForkJoinPool pool;
+    private long totalConfigs = 0;
+    private long uniqueConfigs = 0;
+    private int depth = -1;
+    private int deepestLevel = -1;
+
+    /**
+     * Create a new instance of the parallel solver that runs on the common fork join pool
+     *
+     * @param startNode - the configuration to start the search from
+     */
+    public ParallelSolver(Configuration startNode) {
+        this(startNode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new instance of the parallel solver that runs on the given pool
+     *
+     * @param startNode - the configuration to start the search from
+     * @param pool - the pool that the neighbors of each level are found on
+     */
+    public ParallelSolver(Configuration startNode, ForkJoinPool pool) {
+        this.startNode = startNode;
+        this.pool = pool;
+    }
+
+    /**
+     * Solver method that will conduct the parallel BFS until the final node is reached or every level was searched
+     *
+     * @return - the result of the search, with the path if a solution was found
+     */
+    public SolveResult solve() {
+        List<Configuration> path = solver();
+        return new SolveResult(path.isEmpty() ? SolveResult.Status.UNSOLVABLE : SolveResult.Status.SOLVED, path,
+                path.isEmpty() ? deepestLevel : depth, totalConfigs, uniqueConfigs);
+    }
+
+    /**
+     * Solver method that will conduct the parallel BFS until the final node is reached
+     *
+     * @return - the list of configurations in the path order to the solution, empty if there is no solution
+     */
+    public List<Configuration> solver() {
+        Configuration finalNode = null;
+
+        // The predecessors are only written between levels, while the pool is reading them nothing changes them
+        Map<Configuration, Configuration> predecessors = new HashMap<>();
+        predecessors.put(startNode, startNode);
+        totalConfigs++;
+
+        Configuration[] level = {startNode};
+        int levelDepth = 0;
+        while (level.length > 0 && finalNode == null) {
+            deepestLevel = levelDepth;
+            // Check the level for a solution in queue order, so the first solution is the same one as the single
+            //      threaded solver would find
+            for (Configuration current : level) {
+                uniqueConfigs++;
+                if (current.isSolution()) {
+                    finalNode = current;
+                    depth = levelDepth;
+                    break;
+                }
+            }
+            if (finalNode == null) {
+                level = expand(level, predecessors);
+                levelDepth++;
+            }
+        }
+
+        List<Configuration> path = new ArrayList<>();
+        if (finalNode != null) {
+            Configuration currConfig = finalNode;
+            while (currConfig != startNode) {
+                path.add(currConfig);
+                currConfig = predecessors.get(currConfig);
+            }
+            path.add(startNode);
+            Collections.reverse(path);
+        }
+        return path;
+    }
+
+    /**
+     * Find the next level of the search from the current one
+     *
+     * @param level - the configurations in the current level, in queue order
+     * @param predecessors - the predecessors of every configuration found so far
+     * @return - the configurations in the next level, in queue order
+     */
+    private Configuration[] expand(Configuration[] level, Map<Configuration, Configuration> predecessors) {
+        // Each new configuration maps to the smallest index in the level that found it
+        ConcurrentHashMap<Configuration, Integer> claims = new ConcurrentHashMap<>();
+        // Each task only sets the entries of its own range, and invoke waits for every task to finish
+        List<List<Configuration>> children = new ArrayList<>(Collections.nCopies(level.length, null));
+        LongAdder generated = new LongAdder();
+
+        pool.invoke(new ExpandTask(level, children, predecessors, claims, generated, 0, level.length));
+        totalConfigs += generated.sum();
+
+        // Keep each configuration only under the configuration that claimed it, walking the level in order so the
+        //      next level has the same order as the single threaded queue
+        List<Configuration> nextLevel = new ArrayList<>(claims.size());
+        for (int index = 0; index < level.length; index++) {
+            for (Configuration nbr : children.get(index)) {
+                if (claims.get(nbr) == index && predecessors.putIfAbsent(nbr, level[index]) == null) {
+                    nextLevel.add(nbr);
+                }
+            }
+        }
+        return nextLevel.toArray(new Configuration[0]);
+    }
+
+    public long getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    public long getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    /**
+     * Get the number of moves in the solution that was found last
+     *
+     * @return - the depth of the solution, or -1 if no solution was found
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Task that finds the neighbors of a range of the level, splitting the range in half until it is small enough.
+     *      The tasks are never serialized
+     */
+    @SuppressWarnings("serial")
+    private static class ExpandTask extends RecursiveAction {
+        private final Configuration[] level;
+        private final List<List<Configuration>> children;
+        private final Map<Configuration, Configuration> predecessors;
+        private final ConcurrentHashMap<Configuration, Integer> claims;
+        private final LongAdder generated;
+        private final int from;
+        private final int to;
+
+        private ExpandTask(Configuration[] level, List<List<Configuration>> children,
+                           Map<Configuration, Configuration> predecessors,
+                           ConcurrentHashMap<Configuration, Integer> claims, LongAdder generated, int from, int to) {
+            this.level = level;
+            this.children = children;
+            this.predecessors = predecessors;
+            this.claims = claims;
+            this.generated = generated;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int index = from; index < to; index++) {
+                    List<Configuration> kept = new ArrayList<>();
+                    int count = 0;
+                    for (Configuration nbr : level[index].getNeighbors()) {
+                        count++;
+                        // Configurations from earlier levels are dropped here, the rest are claimed by the
+                        //      smallest index that found them
+                        if (!predecessors.containsKey(nbr)) {
+                            claims.merge(nbr, index, Math::min);
+                            kept.add(nbr);
+                        }
+                    }
+                    children.set(index, kept);
+                    generated.add(count);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ExpandTask(level, children, predecessors, claims, generated, from, middle),
+                        new ExpandTask(level, children, predecessors, claims, generated, middle, to));
+            }
+        }
+    }
+}
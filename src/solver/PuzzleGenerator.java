@@ -0,0 +1,220 @@
+package solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Makes random grid puzzles that are known to be solvable, for stress tests and benchmarks.
+ * Each puzzle places the pieces of a layout at random and has one piece that has to be moved onto a goal cell. The
+ *      goal does not change which moves can be made, so a BFS from the start (stopped after the target depth or a
+ *      number of configurations) finds the fewest moves for the piece to reach every cell, and the cell that can be
+ *      the goal closest to the target depth becomes the goal. New layouts are tried until one has a goal at exactly
+ *      the target depth, and after the last attempt the closest one that was found is used.
+ * The same arguments and seed always make the same puzzle
+ *
+ * @param <C> - the configurations of the puzzle
+ * @author Giovanni Coppola
+ */
+public abstract class PuzzleGenerator<C extends Configuration> {
+    /**
+     * Private members for the generator
+     */
+    private static final int MAX_ATTEMPTS = 200;
+    protected static final int DEFAULT_MAX_CONFIGS = 200_000;
+    private final int numberOfRows;
+    private final int numberOfColumns;
+    private final int targetDepth;
+    private final long seed;
+    private final int maxConfigs;
+    private int depth = -1;
+
+    /**
+     * Create a new instance of the generator
+     *
+     * @param numberOfRows - the number of rows of the grid
+     * @param numberOfColumns - the number of columns of the grid
+     * @param targetDepth - the number of moves the solution should take
+     * @param seed - the seed for the random layouts
+     * @param maxConfigs - the most configurations the search of each layout can visit
+     */
+    protected PuzzleGenerator(int numberOfRows, int numberOfColumns, int targetDepth, long seed, int maxConfigs) {
+        if (numberOfRows < 1 || numberOfColumns < 1) {
+            throw new IllegalArgumentException("The grid must have rows and columns: " + numberOfRows + "x" +
+                    numberOfColumns);
+        }
+        if (targetDepth < 1 || maxConfigs < 1) {
+            throw new IllegalArgumentException("The target depth and the configuration limit must be positive");
+        }
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        this.targetDepth = targetDepth;
+        this.seed = seed;
+        this.maxConfigs = maxConfigs;
+    }
+
+    /**
+     * Make a solvable puzzle
+     *
+     * @return - the start of the puzzle
+     */
+    public C generate() {
+        Random random = new Random(seed);
+        C best = null;
+        depth = -1;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            C start = layout(random);
+            int[] firstReached = firstReached(start);
+            BitSet goalCells = goalCells(start);
+            int goal = -1;
+            for (int cell = goalCells.nextSetBit(0); cell >= 0; cell = goalCells.nextSetBit(cell + 1)) {
+                if (firstReached[cell] > 0 && (goal < 0 || Math.abs(firstReached[cell] - targetDepth) <
+                        Math.abs(firstReached[goal] - targetDepth))) {
+                    goal = cell;
+                }
+            }
+            if (goal >= 0 && (best == null ||
+                    Math.abs(firstReached[goal] - targetDepth) < Math.abs(depth - targetDepth))) {
+                depth = firstReached[goal];
+                best = withGoal(start, goal / numberOfColumns, goal % numberOfColumns);
+                if (depth == targetDepth) {
+                    break;
+                }
+            }
+        }
+        if (best == null) {
+            throw new IllegalStateException("Could not make a solvable puzzle in " + MAX_ATTEMPTS + " attempts");
+        }
+        return best;
+    }
+
+    /**
+     * Write a puzzle in the format its loader reads, followed by the depth and the seed
+     *
+     * @param config - the start of the puzzle
+     * @return - the contents of the puzzle file
+     */
+    public abstract String format(C config);
+
+    /**
+     * Make a random layout. Its goal is not used
+     *
+     * @param random - the random numbers to place the pieces with
+     * @return - the start of the layout
+     */
+    protected abstract C layout(Random random);
+
+    /**
+     * Find the cells of a layout that can be the goal
+     *
+     * @param start - the start of the layout
+     * @return - the cells that can be the goal (see cell)
+     */
+    protected abstract BitSet goalCells(C start);
+
+    /**
+     * Find the cell of the piece that has to reach the goal
+     *
+     * @param config - the configuration to look in
+     * @return - the cell of the piece (see cell)
+     */
+    protected abstract int moverCell(C config);
+
+    /**
+     * Make the start of the puzzle from a layout and its goal
+     *
+     * @param start - the start of the layout
+     * @param row - the row of the goal
+     * @param col - the column of the goal
+     * @return - the start of the puzzle
+     */
+    protected abstract C withGoal(C start, int row, int col);
+
+    /**
+     * Get the index of a cell in the grid
+     *
+     * @param row - the row of the cell
+     * @param col - the column of the cell
+     * @return - the index, row * columns + column
+     */
+    protected int cell(int row, int col) {
+        return row * numberOfColumns + col;
+    }
+
+    /**
+     * Get the lines that go after a puzzle in its file, which its loader does not read
+     *
+     * @return - the depth and the seed after a blank line
+     */
+    protected String trailer() {
+        return "\nsolvable in " + depth + " steps\ngenerated with seed " + seed + "\n";
+    }
+
+    /**
+     * Write a puzzle to a file, or print it if there is no file
+     *
+     * @param puzzle - the contents of the puzzle file
+     * @param filename - the file to write, or null to print the puzzle
+     */
+    protected static void write(String puzzle, String filename) throws IOException {
+        if (filename != null) {
+            Files.writeString(Paths.get(filename), puzzle);
+        } else {
+            System.out.print(puzzle);
+        }
+    }
+
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    /**
+     * Get the number of moves in the solution of the last puzzle that was made
+     *
+     * @return - the depth of the solution, or -1 if no puzzle was made yet
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Search from the start until the level after the target depth or the configuration limit, recording the first
+     *      level the piece reaches each cell on. Every level before the limit was hit is complete, so the levels that
+     *      were recorded are the fewest moves to each cell
+     *
+     * @param start - the start of the layout
+     * @return - the level for each cell, or -1 for cells that were not reached
+     */
+    @SuppressWarnings("unchecked")
+    private int[] firstReached(C start) {
+        int[] firstReached = new int[numberOfRows * numberOfColumns];
+        Arrays.fill(firstReached, -1);
+        Set<Configuration> visited = new HashSet<>();
+        List<Configuration> level = new ArrayList<>();
+        visited.add(start);
+        level.add(start);
+        for (int levelDepth = 0; levelDepth <= targetDepth && !level.isEmpty(); levelDepth++) {
+            List<Configuration> nextLevel = new ArrayList<>();
+            for (Configuration config : level) {
+                int cell = moverCell((C) config);
+                if (firstReached[cell] < 0) {
+                    firstReached[cell] = levelDepth;
+                }
+                if (visited.size() < maxConfigs) {
+                    config.forEachNeighbor(nbr -> {
+                        if (visited.add(nbr)) {
+                            nextLevel.add(nbr);
+                        }
+                    });
+                }
+            }
+            level = nextLevel;
+        }
+        return firstReached;
+    }
+}
@@ -0,0 +1,254 @@
+package solver;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A cache of solutions on disk so a puzzle that was solved before is not searched again.
+ * Each puzzle is keyed by the SHA-256 of its kind and its normalized file contents, so files that only differ in
+ *      spacing or blank lines share a solution. A solution is stored as the index of each move in the getNeighbors
+ *      order of the configuration it was made from, one byte per move, along with how the solve ended and its counts,
+ *      and is rebuilt by replaying the moves from the start.
+ * When the files go over the size limit, the ones that were used the longest ago are deleted first. The cache is
+ *      best effort, a file that can not be read or written is treated as if it was not there
+ *
+ * @author Giovanni Coppola
+ */
+public class SolutionCache {
+    /**
+     * Private members for the solution cache
+     */
+    private static final int MAGIC = 0x50534331;
+    private static final String SUFFIX = ".sol";
+    private static final long DEFAULT_MAX_BYTES = 8L << 20;
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * Create a new solution cache
+     *
+     * @param directory - the directory to keep the solutions in, or null for a cache that never stores anything
+     * @param maxBytes - the most bytes the solution files can take up together
+     */
+    public SolutionCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get the cache used by the puzzles. The cache is off unless the puzzles.cache.dir system property names the
+     *      directory to keep the solutions in, so nothing is written anywhere the user did not ask for. The size
+     *      limit is the puzzles.cache.maxBytes system property, or 8 MB
+     *
+     * @return - the cache
+     */
+    public static SolutionCache getDefault() {
+        String directory = System.getProperty("puzzles.cache.dir");
+        long maxBytes = Long.getLong("puzzles.cache.maxBytes", DEFAULT_MAX_BYTES);
+        return new SolutionCache(directory == null || directory.isEmpty() ? null : Paths.get(directory), maxBytes);
+    }
+
+    /**
+     * Get the key for a puzzle. Every line is trimmed with its spaces collapsed and blank lines are dropped before
+     *      hashing
+     *
+     * @param kind - the name of the puzzle, so different puzzles with the same file contents do not share a key
+     * @param content - the contents of the puzzle file
+     * @return - the key as hex digits
+     */
+    public static String key(String kind, String content) {
+        StringBuilder normalized = new StringBuilder(kind).append('\n');
+        for (String line : content.split("\\R")) {
+            String trimmed = line.trim().replaceAll("\\s+", " ");
+            if (!trimmed.isEmpty()) {
+                normalized.append(trimmed).append('\n');
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(normalized.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte value : digest) {
+                hex.append(String.format("%02x", value));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get the key for a puzzle file
+     *
+     * @param kind - the name of the puzzle
+     * @param filename - the puzzle file
+     * @return - the key, or null if the file can not be read
+     */
+    public static String keyForFile(String kind, String filename) {
+        try {
+            return key(kind, Files.readString(Paths.get(filename)));
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the cached solution for a puzzle, or solve it and cache the solution if there is none
+     *
+     * @param key - the key of the puzzle, or null to always solve
+     * @param startNode - the start of the puzzle
+     * @param solver - the search to run if the solution is not cached
+     * @return - the cached or new result
+     */
+    public SolveResult getOrSolve(String key, Configuration startNode, Function<Configuration, SolveResult> solver) {
+        SolveResult result = get(key, startNode);
+        if (result == null) {
+            result = solver.apply(startNode);
+            put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Get the cached solution for a puzzle, rebuilt from the start. Reading a solution marks it as just used
+     *
+     * @param key - the key of the puzzle
+     * @param startNode - the start of the puzzle
+     * @return - the result, or null if there is no usable solution for the key
+     */
+    public SolveResult get(String key, Configuration startNode) {
+        if (directory == null || key == null) {
+            return null;
+        }
+        Path file = directory.resolve(key + SUFFIX);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a solution file: " + file);
+            }
+            SolveResult.Status status = SolveResult.Status.values()[input.readByte()];
+            int depth = input.readInt();
+            long totalConfigs = input.readLong();
+            long uniqueConfigs = input.readLong();
+            byte[] moves = new byte[input.readInt()];
+            input.readFully(moves);
+            if (status == SolveResult.Status.SOLVED && moves.length != depth) {
+                throw new IOException("The solution does not have as many moves as its depth: " + file);
+            }
+
+            // Replay the moves from the start to get the path back
+            List<Configuration> path = new ArrayList<>();
+            if (status == SolveResult.Status.SOLVED) {
+                Configuration current = startNode;
+                path.add(current);
+                for (byte move : moves) {
+                    List<Configuration> neighbors = new ArrayList<>(current.getNeighbors());
+                    current = neighbors.get(Byte.toUnsignedInt(move));
+                    path.add(current);
+                }
+                if (!current.isSolution()) {
+                    throw new IOException("The solution does not end at a goal: " + file);
+                }
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new SolveResult(status, path, depth, totalConfigs, uniqueConfigs);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // The file is broken or belongs to a different version of the puzzle, so drop it
+            delete(file);
+            return null;
+        }
+    }
+
+    /**
+     * Cache the solution of a puzzle. Only solves that finished are cached, and solutions with a move that is not
+     *      one of the first 256 neighbors are skipped
+     *
+     * @param key - the key of the puzzle
+     * @param result - the result of solving the puzzle from its start
+     */
+    public void put(String key, SolveResult result) {
+        if (directory == null || key == null || (result.getStatus() != SolveResult.Status.SOLVED &&
+                result.getStatus() != SolveResult.Status.UNSOLVABLE)) {
+            return;
+        }
+        List<Configuration> path = result.isSolved() ? result.getPath() : List.of();
+        byte[] moves = new byte[Math.max(0, path.size() - 1)];
+        for (int index = 0; index < moves.length; index++) {
+            int move = new ArrayList<>(path.get(index).getNeighbors()).indexOf(path.get(index + 1));
+            if (move < 0 || move > 0xff) {
+                return;
+            }
+            moves[index] = (byte) move;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            // Write to a temporary file first so a reader never sees half of a solution
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeByte(result.getStatus().ordinal());
+                output.writeInt(result.getDepth());
+                output.writeLong(result.getTotalConfigs());
+                output.writeLong(result.getUniqueConfigs());
+                output.writeInt(moves.length);
+                output.write(moves);
+            }
+            Files.move(temporary, directory.resolve(key + SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            evict();
+        } catch (IOException e) {
+            // The solution just is not cached
+        }
+    }
+
+    /**
+     * Delete the solutions that were used the longest ago until the rest fit in the size limit
+     */
+    private void evict() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = new ArrayList<>(listing.filter(file -> file.toString().endsWith(SUFFIX)).toList());
+        }
+        Map<Path, Long> sizes = new HashMap<>();
+        Map<Path, Long> used = new HashMap<>();
+        long total = 0;
+        for (Path file : files) {
+            try {
+                sizes.put(file, Files.size(file));
+                used.put(file, Files.getLastModifiedTime(file).toMillis());
+                total += sizes.get(file);
+            } catch (IOException e) {
+                // Another process removed it
+                sizes.put(file, 0L);
+                used.put(file, 0L);
+            }
+        }
+        files.sort(Comparator.comparingLong(used::get));
+        for (Path file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            delete(file);
+            total -= sizes.get(file);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // The file will be tried again the next time it is read
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package solver;
+
+import java.time.Duration;
+
+/**
+ * The limits for a single solve: how long it can run, how many configurations it can expand, and a token that can
+ *      cancel it. A solve that goes over a limit stops and returns what it found so far instead of running until the
+ *      queue is empty
+ *
+ * @author Giovanni Coppola
+ */
+public class SolveLimits {
+    /**
+     * Limits that never stop a solve
+     */
+    public static final SolveLimits NONE = new SolveLimits(null, 0, null);
+
+    /**
+     * Private members for the limits
+     */
+    private final Duration timeout;
+    private final long maxNodes;
+    private final CancellationToken token;
+
+    /**
+     * Create new limits for a solve
+     *
+     * @param timeout - how long the solve can run for, or null for no time limit
+     * @param maxNodes - the most configurations the solve can expand, or 0 for no limit
+     * @param token - the token that cancels the solve, or null if it can not be cancelled
+     */
+    public SolveLimits(Duration timeout, long maxNodes, CancellationToken token) {
+        this.timeout = timeout;
+        this.maxNodes = maxNodes;
+        this.token = token;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+
+    /**
+     * Get the time the solve has to finish by
+     *
+     * @param startNanos - the value of System.nanoTime when the solve started
+     * @return - the deadline as a System.nanoTime value, or Long.MAX_VALUE if there is no time limit
+     */
+    long deadline(long startNanos) {
+        if (timeout == null) {
+            return Long.MAX_VALUE;
+        }
+        long nanos = timeout.toNanos();
+        return startNanos + nanos < startNanos ? Long.MAX_VALUE : startNanos + nanos;
+    }
+
+    /**
+     * Check if a solve has to stop. The thread being interrupted counts the same as the token being cancelled
+     *
+     * @param expanded - the number of configurations expanded so far
+     * @param deadline - the value returned by deadline for this solve
+     * @return - the status to stop with, or null if the solve can keep going
+     */
+    SolveResult.Status check(long expanded, long deadline) {
+        if ((token != null && token.isCancelled()) || Thread.currentThread().isInterrupted()) {
+            return SolveResult.Status.CANCELLED;
+        }
+        if ((maxNodes > 0 && expanded >= maxNodes) ||
+                (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0)) {
+            return SolveResult.Status.BUDGET_EXHAUSTED;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package solver;
+
+import java.util.List;
+
+/**
+ * The result of a solve with limits, which says how the solve ended along with the path (if one was found), the
+ *      deepest level it reached and the number of configurations it went through
+ *
+ * @author Giovanni Coppola
+ */
+public class SolveResult {
+    /**
+     * The ways a solve can end. REJECTED means the puzzle was shown to have no solution before any search, so no
+     *      configurations were counted
+     */
+    public enum Status {
+        SOLVED,
+        UNSOLVABLE,
+        BUDGET_EXHAUSTED,
+        CANCELLED,
+        REJECTED
+    }
+
+    /**
+     * Private members for the result
+     */
+    private final Status status;
+    private final List<Configuration> path;
+    private final int depth;
+    private final long totalConfigs;
+    private final long uniqueConfigs;
+
+    /**
+     * Create a new result
+     *
+     * @param status - how the solve ended
+     * @param path - the path to the solution, empty unless the status is SOLVED
+     * @param depth - the number of moves to the solution, or the deepest level reached if it was not solved (-1 if
+     *              nothing was expanded)
+     * @param totalConfigs - the number of configurations generated
+     * @param uniqueConfigs - the number of configurations expanded
+     */
+    public SolveResult(Status status, List<Configuration> path, int depth, long totalConfigs, long uniqueConfigs) {
+        this.status = status;
+        this.path = path;
+        this.depth = depth;
+        this.totalConfigs = totalConfigs;
+        this.uniqueConfigs = uniqueConfigs;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+
+    public List<Configuration> getPath() {
+        return path;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    public long getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    @Override
+    public String toString() {
+        return status + " at depth " + depth + " (" + totalConfigs + " total, " + uniqueConfigs + " unique configs)";
+    }
+}
@@ -1,7 +1,7 @@
 package solver;
 
-import javax.security.auth.login.ConfigurationSpi;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * This class contains a universal algorithm to find a path from a starting
@@ -14,8 +14,10 @@ public class Solver {
      * Private members for the solver class
      */
     private Configuration startNode;
-    private int totalConfigs = 0;
-    private int uniqueConfigs = 0;
+    private long totalConfigs = 0;
+    private long uniqueConfigs = 0;
+    private int depth = -1;
+    private boolean earlyGoalTest = false;
 
     /**
      * Create a new instance of the solver
@@ -26,16 +28,41 @@ public class Solver {
         this.startNode = startNode;
     }
 
+    /**
+     * Set whether the solver checks for a solution when a configuration is first found instead of when it is taken
+     *      off the queue. Checking early stops the search without expanding the rest of the level before the solution,
+     *      and finds the same path, but the counts will be smaller than the ones from the regular search
+     *
+     * @param earlyGoalTest - true to check each new neighbor for a solution as soon as it is found
+     */
+    public void setEarlyGoalTest(boolean earlyGoalTest) {
+        this.earlyGoalTest = earlyGoalTest;
+    }
+
     /**
      * Solver method that will conduct the BFS algorithm to find all the predecessors until the final node is reached
      *
      * @return - the list of configurations in the path order to the solution
      */
     public List<Configuration> solver() {
+        return solve(SolveLimits.NONE).getPath();
+    }
+
+    /**
+     * Solver method that will conduct the BFS algorithm until the final node is reached, the queue is empty or one of
+     *      the limits is reached. The limits are checked before each configuration is expanded
+     *
+     * @param limits - the time, node and cancellation limits for the search
+     * @return - the result of the search, with the path if a solution was found
+     */
+    public SolveResult solve(SolveLimits limits) {
         Configuration finalNode = null;
+        SolveResult.Status status = SolveResult.Status.UNSOLVABLE;
+        long deadline = limits.deadline(System.nanoTime());
+        long expanded = 0;
 
-        // Create the queue and start by adding the start node
-        List<Configuration> queue = new LinkedList<>();
+        // Create the ring buffer queue and start by adding the start node
+        Frontier<Configuration> queue = new Frontier<>();
         queue.add(startNode);
 
         // Create a hashmap that will represent the predecessors
@@ -43,31 +70,133 @@ public class Solver {
         predecessors.put(startNode, startNode);
         totalConfigs++;
 
+        // One expander is reused for every configuration so nothing is allocated per expansion
+        Expander expander = new Expander(predecessors, queue);
+
         // Loop through the queue until it is empty
         while (!queue.isEmpty()) {
+            SolveResult.Status stop = limits.check(expanded, deadline);
+            if (stop != null) {
+                status = stop;
+                break;
+            }
+
             // Make the current the first element in queue and pop it off of the queue
-            Configuration current = queue.remove(0);
+            Configuration current = queue.remove();
             uniqueConfigs++;
+            expanded++;
             if (current.isSolution()) {
                 // Break the loop if the current node is the solution
                 finalNode = current;
+                status = SolveResult.Status.SOLVED;
+                depth = queue.getDepth();
                 uniqueConfigs++;
                 break;
             }
 
-            // Loop through each neighbor of the configuration and add them to predecessors if they are not already there
-            for (Configuration nbr : current.getNeighbors()) {
-                if (!predecessors.containsKey(nbr)) {
-                    predecessors.put(nbr, current);
-                    queue.add(nbr);
+            // Have the configuration hand each neighbor straight to the expander instead of building a collection
+            expander.parent = current;
+            current.forEachNeighbor(expander);
+            if (expander.found != null) {
+                // The early goal test found the solution as a neighbor, so it is one level deeper than the current
+                finalNode = expander.found;
+                status = SolveResult.Status.SOLVED;
+                depth = queue.getDepth() + 1;
+                uniqueConfigs++;
+                break;
+            }
+        }
+        // Create the path and return it with the result
+        return new SolveResult(status, constructPath(predecessors, finalNode), finalNode != null ? depth :
+                queue.getDepth(), totalConfigs, uniqueConfigs);
+    }
+
+    /**
+     * Solver method that will conduct a BFS from both the start node and the goal node at the same time until the two
+     *      searches meet in the middle. If the start node can not give a goal node or its reverse neighbors, the
+     *      regular solver is used instead
+     *
+     * @return - the list of configurations in the path order to the solution
+     */
+    public List<Configuration> bidirectionalSolver() {
+        Configuration goalNode = startNode.getGoal();
+        if (goalNode == null || !startNode.hasReverseNeighbors()) {
+            // There is no single goal to search back from, so fall back to the one sided search
+            return solver();
+        }
+
+        // Each side has its own predecessors, for the backward side the "predecessor" is the next step to the goal
+        Map<Configuration, Link> forward = new HashMap<>();
+        Map<Configuration, Link> backward = new HashMap<>();
+        forward.put(startNode, new Link(null, 0));
+        backward.put(goalNode, new Link(null, 0));
+        totalConfigs += 2;
+
+        List<Configuration> forwardLevel = new ArrayList<>();
+        List<Configuration> backwardLevel = new ArrayList<>();
+        forwardLevel.add(startNode);
+        backwardLevel.add(goalNode);
+
+        Configuration meetNode = null;
+        int bestLength = Integer.MAX_VALUE;
+        if (startNode.isSolution() || backward.containsKey(startNode)) {
+            meetNode = startNode;
+            bestLength = 0;
+        }
+
+        // Expand a whole level of the smaller side each time until the two sides meet or one of them runs out
+        while (meetNode == null && !forwardLevel.isEmpty() && !backwardLevel.isEmpty()) {
+            boolean expandForward = forwardLevel.size() <= backwardLevel.size();
+            List<Configuration> level = expandForward ? forwardLevel : backwardLevel;
+            Map<Configuration, Link> own = expandForward ? forward : backward;
+            Map<Configuration, Link> other = expandForward ? backward : forward;
+            List<Configuration> nextLevel = new ArrayList<>();
+
+            for (Configuration current : level) {
+                uniqueConfigs++;
+                int nextDepth = own.get(current).depth + 1;
+                Collection<Configuration> neighbors = expandForward ? current.getNeighbors()
+                        : current.getReverseNeighbors();
+                for (Configuration nbr : neighbors) {
+                    totalConfigs++;
+                    if (own.putIfAbsent(nbr, new Link(current, nextDepth)) == null) {
+                        nextLevel.add(nbr);
+                        // The whole level is finished before stopping so the shortest meeting point is the one kept
+                        Link otherLink = other.get(nbr);
+                        if (otherLink != null && nextDepth + otherLink.depth < bestLength) {
+                            bestLength = nextDepth + otherLink.depth;
+                            meetNode = nbr;
+                        }
+                    }
                 }
-                totalConfigs++;
+            }
+
+            if (expandForward) {
+                forwardLevel = nextLevel;
+            } else {
+                backwardLevel = nextLevel;
+            }
+        }
+
+        List<Configuration> path = new ArrayList<>();
+        if (meetNode != null) {
+            depth = bestLength;
+            // Walk back to the start from the meeting point, then flip it so it goes from the start to the meeting
+            //      point
+            for (Configuration currConfig = meetNode; currConfig != null;
+                 currConfig = forward.get(currConfig).parent) {
+                path.add(currConfig);
+            }
+            Collections.reverse(path);
+            // Then walk forward to the goal using the predecessors from the backward search (the start node can be a
+            //      solution without being in the backward search)
+            Link toGoal = backward.get(meetNode);
+            for (Configuration currConfig = toGoal == null ? null : toGoal.parent; currConfig != null;
+                 currConfig = backward.get(currConfig).parent) {
+                path.add(currConfig);
             }
         }
-        // Create the path and return it to solver
-        List<Configuration> solved = new ArrayList<>();
-        solved = constructPath(predecessors, finalNode);
-        return solved;
+        return path;
     }
 
     /**
@@ -78,27 +207,84 @@ public class Solver {
      * @return - the final path from start to finish
      */
     public List<Configuration> constructPath(Map<Configuration, Configuration> predecessors, Configuration finalNode) {
-        List<Configuration> path = new LinkedList<>();
+        List<Configuration> path = new ArrayList<>();
 
         // If the final node is in the predecessor list
-        if (predecessors.containsKey(finalNode)) {
-            //int currConfig = startNode.getFinal();
+        if (finalNode != null && predecessors.containsKey(finalNode)) {
             Configuration currConfig = finalNode;
             // Loop through and add the configurations to the path as long as they don't equal the start node
             while (currConfig != startNode) {
-                path.add(0, currConfig);
+                path.add(currConfig);
                 currConfig = predecessors.get(currConfig);
             }
-            path.add(0, startNode);
+            path.add(startNode);
+            // The path was built from the end backwards, so flip it to go from start to finish
+            Collections.reverse(path);
         }
         return path;
     }
 
-    public int getTotalConfigs() {
+    public long getTotalConfigs() {
         return totalConfigs;
     }
 
-    public int getUniqueConfigs() {
+    public long getUniqueConfigs() {
         return uniqueConfigs;
     }
+
+    /**
+     * Get the number of moves in the solution that was found last
+     *
+     * @return - the depth of the solution, or -1 if no solution was found
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Takes the neighbors of the configuration being expanded and adds them to the predecessors and the queue if they
+     *      are not already there. With the early goal test on, the first new neighbor that is a solution is kept and
+     *      the rest of the neighbors are ignored
+     */
+    private class Expander implements Consumer<Configuration> {
+        private final Map<Configuration, Configuration> predecessors;
+        private final Frontier<Configuration> queue;
+        private Configuration parent;
+        private Configuration found;
+
+        private Expander(Map<Configuration, Configuration> predecessors, Frontier<Configuration> queue) {
+            this.predecessors = predecessors;
+            this.queue = queue;
+        }
+
+        @Override
+        public void accept(Configuration nbr) {
+            if (found != null) {
+                return;
+            }
+            totalConfigs++;
+            // putIfAbsent only hashes the neighbor once instead of a containsKey followed by a put
+            if (predecessors.putIfAbsent(nbr, parent) == null) {
+                if (earlyGoalTest && nbr.isSolution()) {
+                    found = nbr;
+                } else {
+                    queue.add(nbr);
+                }
+            }
+        }
+    }
+
+    /**
+     * A predecessor entry for the bidirectional search, storing the configuration it was reached from and how many
+     *      moves it is from the side of the search that found it
+     */
+    private static class Link {
+        private final Configuration parent;
+        private final int depth;
+
+        private Link(Configuration parent, int depth) {
+            this.parent = parent;
+            this.depth = depth;
+        }
+    }
 }
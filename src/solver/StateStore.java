@@ -0,0 +1,42 @@
+package solver;
+
+/**
+ * Storage for the configurations found by the compact solver. Every configuration is kept only as its encoded key
+ *      along with the index of its predecessor, and is given an index in the order it was added
+ *
+ * @author Giovanni Coppola
+ */
+interface StateStore {
+
+    /**
+     * Add a configuration if it has not been added before
+     *
+     * @param config - the configuration to add
+     * @param parent - the index of the configuration it was reached from, or -1 for the start
+     * @return - the index given to the configuration, or -1 if it was already in the store
+     */
+    int add(EncodableConfiguration config, int parent);
+
+    /**
+     * Decode the configuration with the given index
+     *
+     * @param index - the index given by add
+     * @return - the decoded configuration
+     */
+    Configuration get(int index);
+
+    /**
+     * Get the index of the predecessor of a configuration
+     *
+     * @param index - the index given by add
+     * @return - the index of the predecessor, or -1 for the start
+     */
+    int getParent(int index);
+
+    /**
+     * Get the number of configurations that have been added
+     *
+     * @return - the number of configurations in the store
+     */
+    int size();
+}